@@ -0,0 +1,73 @@
+package com.duke.switchbutton_test;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.drawable.GradientDrawable;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+import android.view.View;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * ShaderImageView稳定绘制时不再创建bitmap、BitmapShader
+ */
+@RunWith(AndroidJUnit4.class)
+public class ShaderImageViewAllocationTest {
+    private static final int SIZE = 120;
+    private static final int DRAW_COUNT = 50;
+
+    @Test
+    public void bitmapDrawable_steadyDrawAllocatesNothing() throws Exception {
+        ShaderImageView view = createView();
+        view.setImageResource(R.drawable.me_woman);
+        drawRepeatedly(view);
+        //BitmapDrawable直接使用原图
+        assertEquals(0, view.getBitmapAllocationCount());
+        assertEquals(1, view.getShaderAllocationCount());
+    }
+
+    @Test
+    public void rasterizedDrawable_steadyDrawAllocatesNothing() throws Exception {
+        ShaderImageView view = createView();
+        GradientDrawable drawable = new GradientDrawable();
+        drawable.setColor(Color.RED);
+        drawable.setSize(SIZE, SIZE);
+        view.setImageDrawable(drawable);
+        Bitmap target = Bitmap.createBitmap(SIZE, SIZE, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(target);
+        //首次绘制光栅化一次(池中有可复用的bitmap时为0次)
+        view.draw(canvas);
+        int bitmaps = view.getBitmapAllocationCount();
+        int shaders = view.getShaderAllocationCount();
+        for (int i = 0; i < DRAW_COUNT; i++) {
+            view.draw(canvas);
+        }
+        assertEquals(bitmaps, view.getBitmapAllocationCount());
+        assertEquals(shaders, view.getShaderAllocationCount());
+    }
+
+    private static ShaderImageView createView() {
+        Context context = InstrumentationRegistry.getTargetContext();
+        ShaderImageView view = new ShaderImageView(context);
+        view.setTypeValue(ShaderImageView.ShaderType.CIRCULAR);
+        int spec = View.MeasureSpec.makeMeasureSpec(SIZE, View.MeasureSpec.EXACTLY);
+        view.measure(spec, spec);
+        view.layout(0, 0, SIZE, SIZE);
+        view.resetAllocationCounts();
+        return view;
+    }
+
+    private static void drawRepeatedly(ShaderImageView view) {
+        Bitmap target = Bitmap.createBitmap(SIZE, SIZE, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(target);
+        for (int i = 0; i < DRAW_COUNT; i++) {
+            view.draw(canvas);
+        }
+    }
+}
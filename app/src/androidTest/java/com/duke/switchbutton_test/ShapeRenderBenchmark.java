@@ -0,0 +1,75 @@
+package com.duke.switchbutton_test;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+import android.util.Log;
+import android.util.TypedValue;
+import android.view.View;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * ShaderImageView形状填充方式(PATH、MASK)的绘制耗时对比，结果输出到logcat(tag: ShapeRenderBenchmark)。
+ * <p>
+ * 在软件画布上重复绘制同一个view，只反映CPU光栅化的开销；硬件加速下的差异需配合gfxinfo查看。
+ */
+@RunWith(AndroidJUnit4.class)
+public class ShapeRenderBenchmark {
+    private static final String TAG = "ShapeRenderBenchmark";
+    private static final int SIZE_DP = 96;
+    private static final int WARMUP_ITERATIONS = 20;
+    private static final int ITERATIONS = 300;
+
+    private static final ShaderImageView.ShaderType[] SHAPES = {
+            ShaderImageView.ShaderType.TRIANGLE,
+            ShaderImageView.ShaderType.FIVE_POINTED_STAR,
+            ShaderImageView.ShaderType.PENTAGON,
+            ShaderImageView.ShaderType.HEXAGON,
+            ShaderImageView.ShaderType.HEART,
+            ShaderImageView.ShaderType.CIRCULAR,
+    };
+
+    @Test
+    public void comparePathAndMask() throws Exception {
+        Context context = InstrumentationRegistry.getTargetContext();
+        int size = (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, SIZE_DP,
+                context.getResources().getDisplayMetrics());
+        Bitmap target = Bitmap.createBitmap(size, size, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(target);
+        for (ShaderImageView.ShaderType shape : SHAPES) {
+            long pathNanos = measure(context, canvas, size, shape, ShaderImageView.ShapeRenderMode.PATH);
+            long maskNanos = measure(context, canvas, size, shape, ShaderImageView.ShapeRenderMode.MASK);
+            Log.i(TAG, shape + " " + size + "px: path " + pathNanos / 1000f + "us, mask "
+                    + maskNanos / 1000f + "us per draw");
+            assertTrue(pathNanos > 0 && maskNanos > 0);
+        }
+        Log.i(TAG, CacheRegistry.dump());
+    }
+
+    private static long measure(Context context, Canvas canvas, int size,
+                                ShaderImageView.ShaderType shape, ShaderImageView.ShapeRenderMode mode) {
+        ShaderImageView view = new ShaderImageView(context);
+        view.setImageResource(R.drawable.me_woman);
+        view.setTypeValue(shape);
+        view.setShapeRenderMode(mode);
+        view.setNeedShaderRing(false);
+        int spec = View.MeasureSpec.makeMeasureSpec(size, View.MeasureSpec.EXACTLY);
+        view.measure(spec, spec);
+        view.layout(0, 0, size, size);
+        //预热：生成shader、路径、遮罩
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            view.draw(canvas);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            view.draw(canvas);
+        }
+        return (System.nanoTime() - start) / ITERATIONS;
+    }
+}
@@ -0,0 +1,63 @@
+package com.duke.switchbutton_test;
+
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+import android.view.View;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * SwitchButtonView在状态变化监听中再次切换
+ */
+@RunWith(AndroidJUnit4.class)
+public class SwitchButtonViewListenerTest {
+    private static final int WIDTH = 200;
+    private static final long TIMEOUT_MILLIS = 2000;
+
+    @Test
+    public void toggleFromListener_runsSecondAnimationToEnd() throws Exception {
+        final CountDownLatch switchedBack = new CountDownLatch(1);
+        final SwitchButtonView[] holder = new SwitchButtonView[1];
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                final SwitchButtonView view = new SwitchButtonView(InstrumentationRegistry.getTargetContext());
+                view.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                        View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY));
+                view.layout(0, 0, view.getMeasuredWidth(), view.getMeasuredHeight());
+                view.setOnToggleChangeListener(new SwitchButtonView.OnToggleChangeListener() {
+                    @Override
+                    public void onChange(boolean isToggleOn) {
+                        if (isToggleOn) {
+                            //打开动画结束的回调中立即关闭
+                            view.setIsToggleOn(false);
+                        } else {
+                            switchedBack.countDown();
+                        }
+                    }
+                });
+                holder[0] = view;
+                view.setIsToggleOn(true);
+            }
+        });
+        //第二次动画没有被帧驱动注销，能够结束并回调
+        assertTrue(switchedBack.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                assertFalse(holder[0].getIsToggleOn());
+                //之后的切换仍然正常
+                holder[0].setIsToggleOn(true);
+                holder[0].onDetachedFromWindow();
+                assertTrue(holder[0].getIsToggleOn());
+            }
+        });
+    }
+}
@@ -0,0 +1,84 @@
+package com.duke.switchbutton_test;
+
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+import android.view.MotionEvent;
+import android.view.View;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * SwitchButtonView动画中按下后的点击、取消
+ */
+@RunWith(AndroidJUnit4.class)
+public class SwitchButtonViewTouchTest {
+    private static final int WIDTH = 200;
+
+    @Test
+    public void cancelDuringAnimation_keepsAnimationTarget() throws Exception {
+        runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                SwitchButtonView view = createView();
+                //关闭->打开的动画进行中按下，事件被父view拦截
+                view.setIsToggleOn(true);
+                dispatch(view, MotionEvent.ACTION_DOWN);
+                dispatch(view, MotionEvent.ACTION_CANCEL);
+                //立即结束动画，提交动画目标
+                view.onDetachedFromWindow();
+                assertTrue(view.getIsToggleOn());
+            }
+        });
+    }
+
+    @Test
+    public void cancelAtRest_keepsState() throws Exception {
+        runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                SwitchButtonView view = createView();
+                dispatch(view, MotionEvent.ACTION_DOWN);
+                dispatch(view, MotionEvent.ACTION_CANCEL);
+                view.onDetachedFromWindow();
+                assertFalse(view.getIsToggleOn());
+            }
+        });
+    }
+
+    @Test
+    public void tapDuringAnimation_reversesAnimationTarget() throws Exception {
+        runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                SwitchButtonView view = createView();
+                view.setIsToggleOn(true);
+                dispatch(view, MotionEvent.ACTION_DOWN);
+                dispatch(view, MotionEvent.ACTION_UP);
+                view.onDetachedFromWindow();
+                assertFalse(view.getIsToggleOn());
+            }
+        });
+    }
+
+    private static SwitchButtonView createView() {
+        SwitchButtonView view = new SwitchButtonView(InstrumentationRegistry.getTargetContext());
+        view.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY));
+        view.layout(0, 0, view.getMeasuredWidth(), view.getMeasuredHeight());
+        return view;
+    }
+
+    private static void dispatch(View view, int action) {
+        MotionEvent event = MotionEvent.obtain(0, 0, action, view.getWidth() / 2, view.getHeight() / 2, 0);
+        view.onTouchEvent(event);
+        event.recycle();
+    }
+
+    private static void runOnMainSync(Runnable runnable) {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(runnable);
+    }
+}
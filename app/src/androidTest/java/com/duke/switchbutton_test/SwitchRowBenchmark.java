@@ -0,0 +1,158 @@
+package com.duke.switchbutton_test;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+import android.util.Log;
+import android.view.View;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 列表行中的开关：每行一个SwitchView/SwitchButtonView与每行一个SwitchDrawable的内存和绑定耗时对比，
+ * 结果输出到logcat(tag: SwitchRowBenchmark)。
+ * <p>
+ * 内存为创建ROW_COUNT行并完成首次绘制后、GC后的Java堆增量除以行数；绑定耗时为设置状态并绘制一次的平均耗时，
+ * 在软件画布上测量。
+ */
+@RunWith(AndroidJUnit4.class)
+public class SwitchRowBenchmark {
+    private static final String TAG = "SwitchRowBenchmark";
+    private static final int ROW_COUNT = 200;
+    private static final int BIND_ITERATIONS = 500;
+
+    /**
+     * 一种行实现：创建一行、绑定一个状态并绘制
+     */
+    private interface Row {
+        Object create(Context context);
+
+        void bind(Object row, boolean isOn, Canvas canvas);
+    }
+
+    private static final Row SWITCH_VIEW_ROW = new Row() {
+        @Override
+        public Object create(Context context) {
+            SwitchView view = new SwitchView(context);
+            layout(view, width(context, SwitchViewRenderer.WIDTH_DEFAULT),
+                    (int) (width(context, SwitchViewRenderer.WIDTH_DEFAULT) * SwitchViewGeometry.RATIO_ASPECT));
+            return view;
+        }
+
+        @Override
+        public void bind(Object row, boolean isOn, Canvas canvas) {
+            SwitchView view = (SwitchView) row;
+            view.setOpened(isOn);
+            view.draw(canvas);
+        }
+    };
+
+    private static final Row SWITCH_BUTTON_VIEW_ROW = new Row() {
+        @Override
+        public Object create(Context context) {
+            SwitchButtonView view = new SwitchButtonView(context);
+            int width = width(context, SwitchButtonRenderer.WIDTH_DEFAULT);
+            layout(view, width, width);
+            return view;
+        }
+
+        @Override
+        public void bind(Object row, boolean isOn, Canvas canvas) {
+            SwitchButtonView view = (SwitchButtonView) row;
+            view.setIsToggleOn(isOn);
+            view.draw(canvas);
+        }
+    };
+
+    private static Row drawableRow(final int style) {
+        return new Row() {
+            @Override
+            public Object create(Context context) {
+                SwitchDrawable drawable = new SwitchDrawable(context.getResources(), style);
+                drawable.setBounds(0, 0, drawable.getIntrinsicWidth(), drawable.getIntrinsicHeight());
+                return drawable;
+            }
+
+            @Override
+            public void bind(Object row, boolean isOn, Canvas canvas) {
+                SwitchDrawable drawable = (SwitchDrawable) row;
+                drawable.setSwitchState(isOn ? SwitchState.ON : SwitchState.OFF);
+                drawable.draw(canvas);
+            }
+        };
+    }
+
+    @Test
+    public void compareViewsAndDrawable() throws Exception {
+        Context context = InstrumentationRegistry.getTargetContext();
+        int size = width(context, SwitchButtonRenderer.WIDTH_DEFAULT);
+        Bitmap target = Bitmap.createBitmap(size, size, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(target);
+        report("SwitchView", context, canvas, SWITCH_VIEW_ROW);
+        report("SwitchDrawable(SwitchView)", context, canvas, drawableRow(SwitchDrawable.STYLE_SWITCH_VIEW));
+        report("SwitchButtonView", context, canvas, SWITCH_BUTTON_VIEW_ROW);
+        report("SwitchDrawable(SwitchButtonView)", context, canvas, drawableRow(SwitchDrawable.STYLE_SWITCH_BUTTON));
+        Log.i(TAG, CacheRegistry.dump());
+    }
+
+    private static void report(String name, Context context, Canvas canvas, Row row) {
+        long bytesPerRow = measureMemory(context, canvas, row);
+        long bindNanos = measureBind(context, canvas, row);
+        Log.i(TAG, name + ": " + bytesPerRow + " bytes per row, bind " + bindNanos / 1000f + "us");
+        assertTrue(bindNanos > 0);
+    }
+
+    private static long measureMemory(Context context, Canvas canvas, Row row) {
+        List<Object> rows = new ArrayList<>(ROW_COUNT);
+        long before = usedMemory();
+        for (int i = 0; i < ROW_COUNT; i++) {
+            Object r = row.create(context);
+            row.bind(r, (i & 1) == 0, canvas);
+            rows.add(r);
+        }
+        long after = usedMemory();
+        //保持引用到测量结束
+        assertTrue(rows.size() == ROW_COUNT);
+        return (after - before) / ROW_COUNT;
+    }
+
+    private static long measureBind(Context context, Canvas canvas, Row row) {
+        Object r = row.create(context);
+        //预热：生成几何、按钮图片、阴影
+        for (int i = 0; i < 20; i++) {
+            row.bind(r, (i & 1) == 0, canvas);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < BIND_ITERATIONS; i++) {
+            row.bind(r, (i & 1) == 0, canvas);
+        }
+        return (System.nanoTime() - start) / BIND_ITERATIONS;
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            runtime.gc();
+            runtime.runFinalization();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static int width(Context context, int dp) {
+        return (int) (dp * context.getResources().getDisplayMetrics().density + 0.5f);
+    }
+
+    private static void layout(View view, int width, int height) {
+        view.measure(View.MeasureSpec.makeMeasureSpec(width, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(height, View.MeasureSpec.EXACTLY));
+        view.layout(0, 0, view.getMeasuredWidth(), view.getMeasuredHeight());
+    }
+}
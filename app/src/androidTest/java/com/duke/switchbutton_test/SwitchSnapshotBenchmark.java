@@ -0,0 +1,61 @@
+package com.duke.switchbutton_test;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+import android.util.Log;
+import android.view.View;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * SwitchView静止状态在软件画布上的绘制耗时：使用快照贴图与直接绘制对比，结果输出到logcat(tag: SwitchSnapshotBenchmark)。
+ * <p>
+ * 硬件加速下静止的开关不会重新执行onDraw，快照只用于软件画布。
+ */
+@RunWith(AndroidJUnit4.class)
+public class SwitchSnapshotBenchmark {
+    private static final String TAG = "SwitchSnapshotBenchmark";
+    private static final int WARMUP_ITERATIONS = 20;
+    private static final int ITERATIONS = 500;
+
+    @Test
+    public void compareSnapshotAndDirectDraw() throws Exception {
+        Context context = InstrumentationRegistry.getTargetContext();
+        int width = (int) (SwitchViewRenderer.WIDTH_DEFAULT * context.getResources().getDisplayMetrics().density + 0.5f);
+        int height = (int) (width * SwitchViewGeometry.RATIO_ASPECT);
+        Bitmap target = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(target);
+        for (boolean shadow : new boolean[]{true, false}) {
+            long snapshotNanos = measure(context, canvas, width, height, shadow, true);
+            long directNanos = measure(context, canvas, width, height, shadow, false);
+            Log.i(TAG, width + "x" + height + "px shadow " + shadow + ": snapshot " + snapshotNanos / 1000f
+                    + "us, direct " + directNanos / 1000f + "us per draw");
+            assertTrue(snapshotNanos > 0 && directNanos > 0);
+        }
+    }
+
+    private static long measure(Context context, Canvas canvas, int width, int height,
+                                boolean shadow, boolean snapshot) {
+        SwitchView view = new SwitchView(context);
+        view.setShadow(shadow);
+        view.setIdleSnapshotEnabled(snapshot);
+        view.measure(View.MeasureSpec.makeMeasureSpec(width, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(height, View.MeasureSpec.EXACTLY));
+        view.layout(0, 0, width, height);
+        //预热：生成快照、阴影
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            view.draw(canvas);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            view.draw(canvas);
+        }
+        return (System.nanoTime() - start) / ITERATIONS;
+    }
+}
@@ -0,0 +1,137 @@
+package com.duke.switchbutton_test;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+import android.view.MotionEvent;
+import android.view.View;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * SwitchView的阴影精灵图与软件图层(RadialGradient填充滑块路径)绘制结果一致：
+ * 在切换动画(滑块移动)和按下动画(滑块拉伸)的多个进度上逐像素比较
+ */
+@RunWith(AndroidJUnit4.class)
+public class SwitchViewShadowTest {
+    private static final int WIDTH = 168;
+    private static final int HEIGHT = 114;
+    private static final long DURATION = 160;
+    private static final long[] FRAME_TIMES = {0, 20, 40, 60, 80, 100, 120, 140, DURATION};
+    //每个颜色通道允许的最大差值(精灵图双线性采样与直接填充渐变的取整差异)
+    private static final int MAX_CHANNEL_DIFF = 8;
+
+    /**
+     * 手动步进的时钟
+     */
+    private static final class ManualClock implements AnimationClock {
+        long time;
+
+        @Override
+        public long now() {
+            return time;
+        }
+    }
+
+    @Test
+    public void toggleAnimation_spriteMatchesSoftwareLayer() throws Exception {
+        runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                ManualClock spriteClock = new ManualClock();
+                ManualClock softwareClock = new ManualClock();
+                SwitchView sprite = createView(spriteClock, false);
+                SwitchView software = createView(softwareClock, true);
+                sprite.toggleSwitch(true);
+                software.toggleSwitch(true);
+                compareFrames(sprite, spriteClock, software, softwareClock);
+            }
+        });
+    }
+
+    @Test
+    public void pressAnimation_spriteMatchesSoftwareLayer() throws Exception {
+        runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                ManualClock spriteClock = new ManualClock();
+                ManualClock softwareClock = new ManualClock();
+                SwitchView sprite = createView(spriteClock, false);
+                SwitchView software = createView(softwareClock, true);
+                //停在按下后的中间状态，只做滑块拉伸动画
+                press(sprite);
+                press(software);
+                compareFrames(sprite, spriteClock, software, softwareClock);
+            }
+        });
+    }
+
+    private static void compareFrames(SwitchView sprite, ManualClock spriteClock,
+                                      SwitchView software, ManualClock softwareClock) {
+        Bitmap spriteFrame = Bitmap.createBitmap(WIDTH, HEIGHT, Bitmap.Config.ARGB_8888);
+        Bitmap softwareFrame = Bitmap.createBitmap(WIDTH, HEIGHT, Bitmap.Config.ARGB_8888);
+        for (long time : FRAME_TIMES) {
+            spriteClock.time = time;
+            softwareClock.time = time;
+            spriteFrame.eraseColor(Color.TRANSPARENT);
+            softwareFrame.eraseColor(Color.TRANSPARENT);
+            sprite.draw(new Canvas(spriteFrame));
+            software.draw(new Canvas(softwareFrame));
+            int diff = maxChannelDiff(spriteFrame, softwareFrame);
+            assertTrue("frame at " + time + "ms differs by " + diff, diff <= MAX_CHANNEL_DIFF);
+        }
+    }
+
+    private static SwitchView createView(AnimationClock clock, boolean useSoftwareLayer) {
+        Context context = InstrumentationRegistry.getTargetContext();
+        SwitchView view = new SwitchView(context);
+        view.setShadow(true);
+        view.setUseSoftwareLayer(useSoftwareLayer);
+        view.setAnimationClock(clock);
+        view.setAnimationDuration(DURATION);
+        view.setOnStateChangedListener(new SwitchView.OnStateChangedListener() {
+            @Override
+            public void toggleToOn(SwitchView view) {
+            }
+
+            @Override
+            public void toggleToOff(SwitchView view) {
+            }
+        });
+        view.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        view.layout(0, 0, WIDTH, HEIGHT);
+        return view;
+    }
+
+    private static void press(SwitchView view) {
+        MotionEvent up = MotionEvent.obtain(0, 0, MotionEvent.ACTION_UP, WIDTH / 2, HEIGHT / 2, 0);
+        view.onTouchEvent(up);
+        up.recycle();
+    }
+
+    private static int maxChannelDiff(Bitmap a, Bitmap b) {
+        int max = 0;
+        for (int y = 0; y < a.getHeight(); y++) {
+            for (int x = 0; x < a.getWidth(); x++) {
+                int pa = a.getPixel(x, y);
+                int pb = b.getPixel(x, y);
+                max = Math.max(max, Math.abs(Color.alpha(pa) - Color.alpha(pb)));
+                max = Math.max(max, Math.abs(Color.red(pa) - Color.red(pb)));
+                max = Math.max(max, Math.abs(Color.green(pa) - Color.green(pb)));
+                max = Math.max(max, Math.abs(Color.blue(pa) - Color.blue(pb)));
+            }
+        }
+        return max;
+    }
+
+    private static void runOnMainSync(Runnable runnable) {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(runnable);
+    }
+}
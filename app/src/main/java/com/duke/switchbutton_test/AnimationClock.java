@@ -0,0 +1,17 @@
+package com.duke.switchbutton_test;
+
+/**
+ * @Author: zhangsheng
+ * @DateTime: 2026-10-16 13:20
+ * @Description: 动画时钟(纯java，可替换) <br/>
+ * <p>
+ * 默认实现返回当前帧的时间戳；单元测试中可替换为手动步进的时钟。 <br/>
+ */
+public interface AnimationClock {
+    /**
+     * 当前时间
+     *
+     * @return 毫秒
+     */
+    long now();
+}
@@ -0,0 +1,145 @@
+package com.duke.switchbutton_test;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Choreographer;
+import android.view.animation.AnimationUtils;
+
+import java.util.ArrayList;
+
+/**
+ * @Author: zhangsheng
+ * @DateTime: 2026-10-16 14:30
+ * @Description: 所有开关共享的动画驱动 <br/>
+ * <p>
+ * 只注册一个帧回调(API 16+使用Choreographer，低版本使用Handler)，每帧一次性分发给所有正在动画的控件； <br/>
+ * 没有动画时不再注册任何帧回调。 <br/>
+ */
+public final class AnimationTicker {
+    //API 16以下的帧间隔ms
+    private static final long FALLBACK_FRAME_DELAY = 10;
+
+    private static AnimationTicker sInstance;
+
+    private final ArrayList<Callback> mCallbacks = new ArrayList<>();
+    //分发时使用的快照，避免回调中注册/注销影响遍历
+    private Callback[] mDispatching = new Callback[8];
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+    private boolean mFrameScheduled;
+    private Object mFrameCallback;
+    private final Runnable mFallbackFrame = new Runnable() {
+        @Override
+        public void run() {
+            doFrame(AnimationUtils.currentAnimationTimeMillis());
+        }
+    };
+
+    private AnimationTicker() {
+    }
+
+    /**
+     * 获取共享实例(主线程)
+     *
+     * @return AnimationTicker
+     */
+    public static AnimationTicker getInstance() {
+        if (sInstance == null) {
+            sInstance = new AnimationTicker();
+        }
+        return sInstance;
+    }
+
+    /**
+     * 注册动画回调，已注册时忽略；非主线程调用时切换到主线程执行
+     *
+     * @param callback 回调
+     */
+    public void register(final Callback callback) {
+        if (Looper.myLooper() != Looper.getMainLooper()) {
+            mHandler.post(new Runnable() {
+                @Override
+                public void run() {
+                    register(callback);
+                }
+            });
+            return;
+        }
+        if (!mCallbacks.contains(callback)) {
+            mCallbacks.add(callback);
+        }
+        scheduleFrame();
+    }
+
+    /**
+     * 注销动画回调
+     *
+     * @param callback 回调
+     */
+    public void unregister(Callback callback) {
+        mCallbacks.remove(callback);
+    }
+
+    /**
+     * 当前正在动画的数量
+     *
+     * @return 数量
+     */
+    public int getActiveAnimationCount() {
+        return mCallbacks.size();
+    }
+
+    private void scheduleFrame() {
+        if (mFrameScheduled || mCallbacks.isEmpty()) {
+            return;
+        }
+        mFrameScheduled = true;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            postChoreographerFrame();
+        } else {
+            mHandler.postDelayed(mFallbackFrame, FALLBACK_FRAME_DELAY);
+        }
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    private void postChoreographerFrame() {
+        if (mFrameCallback == null) {
+            mFrameCallback = new Choreographer.FrameCallback() {
+                @Override
+                public void doFrame(long frameTimeNanos) {
+                    AnimationTicker.this.doFrame(frameTimeNanos / 1000000);
+                }
+            };
+        }
+        Choreographer.getInstance().postFrameCallback((Choreographer.FrameCallback) mFrameCallback);
+    }
+
+    private void doFrame(long frameTimeMillis) {
+        mFrameScheduled = false;
+        int count = mCallbacks.size();
+        if (mDispatching.length < count) {
+            mDispatching = new Callback[count * 2];
+        }
+        mCallbacks.toArray(mDispatching);
+        for (int i = 0; i < count; i++) {
+            Callback callback = mDispatching[i];
+            mDispatching[i] = null;
+            if (!callback.onAnimationFrame(frameTimeMillis)) {
+                mCallbacks.remove(callback);
+            }
+        }
+        scheduleFrame();
+    }
+
+    /**
+     * 动画帧回调
+     */
+    public interface Callback {
+        /**
+         * @param frameTimeMillis 当前帧时间ms
+         * @return 是否继续动画，返回false后自动注销
+         */
+        boolean onAnimationFrame(long frameTimeMillis);
+    }
+}
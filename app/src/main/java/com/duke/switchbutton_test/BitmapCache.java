@@ -0,0 +1,172 @@
+package com.duke.switchbutton_test;
+
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.os.Build;
+import android.util.LruCache;
+
+/**
+ * @Author: zhangsheng
+ * @DateTime: 2026-10-16 10:12
+ * @Description: 进程内共享的图片LRU缓存 <br/>
+ * <p>
+ * 按(资源id、屏幕密度、目标宽高)缓存解码后的bitmap，也可按自定义键值缓存控件快照，总大小按字节数限制； <br/>
+ * 被淘汰的bitmap不会被recycle，仍被view引用时可以继续安全绘制。 <br/>
+ */
+public final class BitmapCache {
+    //默认缓存上限：最大可用内存的1/16
+    private static final int MAX_SIZE_DEFAULT = (int) Math.min(Integer.MAX_VALUE, Runtime.getRuntime().maxMemory() / 16);
+
+    private static volatile BitmapCache sInstance;
+
+    private final LruCache<String, Bitmap> mCache;
+
+    private BitmapCache(int maxSizeBytes) {
+        mCache = new LruCache<String, Bitmap>(maxSizeBytes) {
+            @Override
+            protected int sizeOf(String key, Bitmap value) {
+                return value.getRowBytes() * value.getHeight();
+            }
+        };
+    }
+
+    /**
+     * 获取进程内唯一的缓存实例
+     *
+     * @return BitmapCache
+     */
+    public static BitmapCache getInstance() {
+        if (sInstance == null) {
+            synchronized (BitmapCache.class) {
+                if (sInstance == null) {
+                    sInstance = new BitmapCache(MAX_SIZE_DEFAULT);
+                }
+            }
+        }
+        return sInstance;
+    }
+
+    /**
+     * 获取资源图片，未命中时解码并放入缓存
+     *
+     * @param res          资源对象
+     * @param resId        图片资源id
+     * @param targetWidth  目标宽度px，小于等于0表示原始大小
+     * @param targetHeight 目标高度px，小于等于0表示原始大小
+     * @return 解码后的bitmap，解码失败返回null
+     */
+    public Bitmap getBitmap(Resources res, int resId, int targetWidth, int targetHeight) {
+        String key = createKey(resId, res.getDisplayMetrics().densityDpi, targetWidth, targetHeight);
+        Bitmap bitmap = mCache.get(key);
+        if (bitmap != null) {
+            return bitmap;
+        }
+        bitmap = decode(res, resId, targetWidth, targetHeight);
+        if (bitmap != null) {
+            mCache.put(key, bitmap);
+        }
+        return bitmap;
+    }
+
+    /**
+     * 按自定义键值获取缓存的bitmap(如控件快照)
+     *
+     * @param key 键值，需避免与资源键值"resId:density:WxH"冲突
+     * @return bitmap，未缓存返回null
+     */
+    public Bitmap get(String key) {
+        return mCache.get(key);
+    }
+
+    /**
+     * 按自定义键值缓存bitmap
+     *
+     * @param key    键值
+     * @param bitmap bitmap(放入后不能再修改)
+     */
+    public void put(String key, Bitmap bitmap) {
+        mCache.put(key, bitmap);
+    }
+
+    private static Bitmap decode(Resources res, int resId, int targetWidth, int targetHeight) {
+        if (targetWidth <= 0 || targetHeight <= 0) {
+            return BitmapFactory.decodeResource(res, resId);
+        }
+        //需要缩放时原图只是中间结果，从BitmapPool复用，缩放后放回
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeResource(res, resId, options);
+        if (options.outWidth == targetWidth && options.outHeight == targetHeight) {
+            return BitmapFactory.decodeResource(res, resId);
+        }
+        options.inPreferredConfig = BitmapPool.configForMimeType(options.outMimeType);
+        options.inJustDecodeBounds = false;
+        BitmapPool pool = BitmapPool.getInstance();
+        pool.prepareDecode(options);
+        Bitmap source;
+        try {
+            source = BitmapFactory.decodeResource(res, resId, options);
+        } catch (IllegalArgumentException e) {
+            //复用的bitmap不满足解码要求，改为新分配
+            pool.finishDecode(options, null);
+            source = BitmapFactory.decodeResource(res, resId, options);
+        }
+        pool.finishDecode(options, source);
+        if (source == null) {
+            return null;
+        }
+        Bitmap scaled = Bitmap.createScaledBitmap(source, targetWidth, targetHeight, true);
+        if (scaled != source) {
+            pool.put(source);
+        }
+        return scaled;
+    }
+
+    private static String createKey(int resId, int densityDpi, int targetWidth, int targetHeight) {
+        return resId + ":" + densityDpi + ":" + targetWidth + "x" + targetHeight;
+    }
+
+    /**
+     * 淘汰最久未使用的bitmap，直到总大小不超过maxSize(API 17以下直接清空)
+     *
+     * @param maxSize 字节数
+     */
+    public void trimToSize(int maxSize) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR1) {
+            mCache.trimToSize(maxSize);
+        } else if (mCache.size() > maxSize) {
+            mCache.evictAll();
+        }
+    }
+
+    //清空缓存
+    public void evictAll() {
+        mCache.evictAll();
+    }
+
+    //命中次数
+    public int hitCount() {
+        return mCache.hitCount();
+    }
+
+    //未命中次数
+    public int missCount() {
+        return mCache.missCount();
+    }
+
+    //淘汰次数
+    public int evictionCount() {
+        return mCache.evictionCount();
+    }
+
+    //当前占用字节数
+    public int size() {
+        return mCache.size();
+    }
+
+    //缓存上限字节数
+    public int maxSize() {
+        return mCache.maxSize();
+    }
+}
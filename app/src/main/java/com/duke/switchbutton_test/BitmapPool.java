@@ -0,0 +1,326 @@
+package com.duke.switchbutton_test;
+
+import android.annotation.TargetApi;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Color;
+import android.os.Build;
+import android.util.SparseArray;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+
+/**
+ * @Author: zhangsheng
+ * @DateTime: 2026-10-16 17:50
+ * @Description: 进程内共享的可复用bitmap池 <br/>
+ * <p>
+ * 不再使用的可变bitmap放回池中，按字节数的2的幂次分级保存，总大小按字节数限制，超出时淘汰最早放入的； <br/>
+ * 申请bitmap或解码(BitmapFactory.Options.inBitmap)时优先复用： <br/>
+ * 1、API 19及以上：同级或高一级中字节数足够的bitmap，reconfigure为目标尺寸； <br/>
+ * 2、API 19以下：宽高、config完全相同的bitmap(解码时还要求inSampleSize为1)。 <br/>
+ * 放入池中的bitmap调用方不能再使用；线程安全。 <br/>
+ */
+public final class BitmapPool {
+    //默认池上限：最大可用内存的1/32
+    private static final int MAX_SIZE_DEFAULT = (int) Math.min(Integer.MAX_VALUE, Runtime.getRuntime().maxMemory() / 32);
+
+    private static volatile BitmapPool sInstance;
+
+    private final int mMaxSize;
+    //字节数分级 -> 该级的bitmap
+    private final SparseArray<ArrayList<Bitmap>> mBuckets = new SparseArray<>();
+    //放入顺序，超出上限时从最早的开始淘汰(Bitmap按引用比较，contains、remove为O(1))
+    private final LinkedHashSet<Bitmap> mOrder = new LinkedHashSet<>();
+    private int mSize;
+    //统计
+    private int mRequestCount;
+    private int mHitCount;
+    private int mPutCount;
+    private int mEvictionCount;
+
+    private BitmapPool(int maxSizeBytes) {
+        mMaxSize = maxSizeBytes;
+    }
+
+    /**
+     * 获取进程内唯一的池实例
+     *
+     * @return BitmapPool
+     */
+    public static BitmapPool getInstance() {
+        if (sInstance == null) {
+            synchronized (BitmapPool.class) {
+                if (sInstance == null) {
+                    sInstance = new BitmapPool(MAX_SIZE_DEFAULT);
+                }
+            }
+        }
+        return sInstance;
+    }
+
+    /**
+     * 获取指定尺寸的透明bitmap，优先复用池中的bitmap
+     *
+     * @param width  宽度px
+     * @param height 高度px
+     * @param config 像素格式
+     * @return 可变bitmap
+     */
+    public Bitmap get(int width, int height, Bitmap.Config config) {
+        Bitmap bitmap = getReusable(width, height, config);
+        return bitmap != null ? bitmap : Bitmap.createBitmap(width, height, config);
+    }
+
+    /**
+     * 从池中取出可复用的透明bitmap，池中没有时不创建
+     *
+     * @param width  宽度px
+     * @param height 高度px
+     * @param config 像素格式
+     * @return 可变bitmap，未命中返回null
+     */
+    public Bitmap getReusable(int width, int height, Bitmap.Config config) {
+        Bitmap bitmap;
+        synchronized (this) {
+            mRequestCount++;
+            bitmap = take(width, height, config);
+            if (bitmap != null) {
+                mHitCount++;
+            }
+        }
+        if (bitmap != null) {
+            bitmap.eraseColor(Color.TRANSPARENT);
+        }
+        return bitmap;
+    }
+
+    /**
+     * 放回不再使用的bitmap；不可变、已回收或超过池上限的bitmap不会放入
+     *
+     * @param bitmap bitmap
+     * @return 是否放入池中
+     */
+    public synchronized boolean put(Bitmap bitmap) {
+        if (bitmap == null || bitmap.isRecycled() || !bitmap.isMutable()) {
+            return false;
+        }
+        int bytes = byteCountOf(bitmap);
+        if (bytes > mMaxSize || mOrder.contains(bitmap)) {
+            return false;
+        }
+        int sizeClass = sizeClassOf(bytes);
+        ArrayList<Bitmap> bucket = mBuckets.get(sizeClass);
+        if (bucket == null) {
+            bucket = new ArrayList<>();
+            mBuckets.put(sizeClass, bucket);
+        }
+        bucket.add(bitmap);
+        mOrder.add(bitmap);
+        mSize += bytes;
+        mPutCount++;
+        trimToSize(mMaxSize);
+        return true;
+    }
+
+    /**
+     * 解码前设置复用的bitmap，需在inJustDecodeBounds解码出outWidth/outHeight、设置好inSampleSize之后调用； <br/>
+     * 解码完成后必须调用{@link #finishDecode(BitmapFactory.Options, Bitmap)}
+     *
+     * @param options 解码参数
+     */
+    public void prepareDecode(BitmapFactory.Options options) {
+        options.inMutable = true;
+        int sampleSize = Math.max(1, options.inSampleSize);
+        if (options.outWidth <= 0 || options.outHeight <= 0
+                || (Build.VERSION.SDK_INT < Build.VERSION_CODES.KITKAT && sampleSize != 1)) {
+            return;
+        }
+        //向上取整，API 19及以上只要求字节数足够
+        int width = (options.outWidth + sampleSize - 1) / sampleSize;
+        int height = (options.outHeight + sampleSize - 1) / sampleSize;
+        Bitmap.Config config = options.inPreferredConfig != null ? options.inPreferredConfig : Bitmap.Config.ARGB_8888;
+        synchronized (this) {
+            mRequestCount++;
+            options.inBitmap = take(width, height, config);
+        }
+    }
+
+    /**
+     * 解码结束：复用的bitmap没有被使用(解码失败或尺寸不符)时放回池中
+     *
+     * @param options 解码参数
+     * @param result  解码结果，失败为null
+     */
+    public void finishDecode(BitmapFactory.Options options, Bitmap result) {
+        Bitmap inBitmap = options.inBitmap;
+        options.inBitmap = null;
+        if (inBitmap == null) {
+            return;
+        }
+        if (inBitmap == result) {
+            synchronized (this) {
+                mHitCount++;
+            }
+        } else {
+            put(inBitmap);
+        }
+    }
+
+    /**
+     * 淘汰最早放入的bitmap，直到总大小不超过maxSize
+     *
+     * @param maxSize 字节数
+     */
+    public synchronized void trimToSize(int maxSize) {
+        Iterator<Bitmap> iterator = mOrder.iterator();
+        while (mSize > maxSize && iterator.hasNext()) {
+            Bitmap bitmap = iterator.next();
+            iterator.remove();
+            int bytes = byteCountOf(bitmap);
+            mBuckets.get(sizeClassOf(bytes)).remove(bitmap);
+            mSize -= bytes;
+            mEvictionCount++;
+            bitmap.recycle();
+        }
+    }
+
+    //清空池
+    public void clear() {
+        trimToSize(0);
+    }
+
+    /**
+     * 按图片格式选择解码的像素格式：JPEG没有透明通道，使用RGB_565，内存减半；其他格式使用ARGB_8888
+     *
+     * @param mimeType BitmapFactory.Options.outMimeType
+     * @return 像素格式
+     */
+    public static Bitmap.Config configForMimeType(String mimeType) {
+        return "image/jpeg".equals(mimeType) ? Bitmap.Config.RGB_565 : Bitmap.Config.ARGB_8888;
+    }
+
+    private Bitmap take(int width, int height, Bitmap.Config config) {
+        if (width <= 0 || height <= 0 || config == null) {
+            return null;
+        }
+        int bytes = width * height * bytesPerPixel(config);
+        int sizeClass = sizeClassOf(bytes);
+        Bitmap bitmap;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT) {
+            //高一级的bitmap最多浪费3/4的空间
+            bitmap = removeReconfigurable(sizeClass, bytes);
+            if (bitmap == null) {
+                bitmap = removeReconfigurable(sizeClass + 1, bytes);
+            }
+            if (bitmap != null) {
+                reconfigure(bitmap, width, height, config);
+            }
+        } else {
+            bitmap = removeExact(sizeClass, width, height, config);
+        }
+        return bitmap;
+    }
+
+    private Bitmap removeReconfigurable(int sizeClass, int bytes) {
+        ArrayList<Bitmap> bucket = mBuckets.get(sizeClass);
+        if (bucket == null) {
+            return null;
+        }
+        for (int i = bucket.size() - 1; i >= 0; i--) {
+            Bitmap bitmap = bucket.get(i);
+            if (byteCountOf(bitmap) >= bytes) {
+                return remove(bucket, i);
+            }
+        }
+        return null;
+    }
+
+    private Bitmap removeExact(int sizeClass, int width, int height, Bitmap.Config config) {
+        ArrayList<Bitmap> bucket = mBuckets.get(sizeClass);
+        if (bucket == null) {
+            return null;
+        }
+        for (int i = bucket.size() - 1; i >= 0; i--) {
+            Bitmap bitmap = bucket.get(i);
+            if (bitmap.getWidth() == width && bitmap.getHeight() == height && bitmap.getConfig() == config) {
+                return remove(bucket, i);
+            }
+        }
+        return null;
+    }
+
+    private Bitmap remove(ArrayList<Bitmap> bucket, int index) {
+        Bitmap bitmap = bucket.remove(index);
+        mOrder.remove(bitmap);
+        mSize -= byteCountOf(bitmap);
+        return bitmap;
+    }
+
+    @TargetApi(Build.VERSION_CODES.KITKAT)
+    private static void reconfigure(Bitmap bitmap, int width, int height, Bitmap.Config config) {
+        bitmap.reconfigure(width, height, config);
+    }
+
+    private static int byteCountOf(Bitmap bitmap) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT) {
+            return allocationByteCount(bitmap);
+        }
+        return bitmap.getRowBytes() * bitmap.getHeight();
+    }
+
+    @TargetApi(Build.VERSION_CODES.KITKAT)
+    private static int allocationByteCount(Bitmap bitmap) {
+        return bitmap.getAllocationByteCount();
+    }
+
+    private static int bytesPerPixel(Bitmap.Config config) {
+        if (config == Bitmap.Config.ALPHA_8) {
+            return 1;
+        } else if (config == Bitmap.Config.RGB_565) {
+            return 2;
+        }
+        return 4;
+    }
+
+    //字节数向上取整到2的幂次后的指数
+    private static int sizeClassOf(int bytes) {
+        return 32 - Integer.numberOfLeadingZeros(Math.max(1, bytes) - 1);
+    }
+
+    //申请(get及解码)次数
+    public synchronized int requestCount() {
+        return mRequestCount;
+    }
+
+    //复用次数
+    public synchronized int hitCount() {
+        return mHitCount;
+    }
+
+    //复用率(0~1)
+    public synchronized float reuseRate() {
+        return mRequestCount == 0 ? 0 : (float) mHitCount / mRequestCount;
+    }
+
+    //放回次数
+    public synchronized int putCount() {
+        return mPutCount;
+    }
+
+    //淘汰次数
+    public synchronized int evictionCount() {
+        return mEvictionCount;
+    }
+
+    //当前占用字节数
+    public synchronized int size() {
+        return mSize;
+    }
+
+    //池上限字节数
+    public int maxSize() {
+        return mMaxSize;
+    }
+}
@@ -0,0 +1,141 @@
+package com.duke.switchbutton_test;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * @Author: zhangsheng
+ * @DateTime: 2026-10-16 18:30
+ * @Description: 控件缓存的统一内存管理 <br/>
+ * <p>
+ * 向Application注册ComponentCallbacks2，按onTrimMemory的级别收缩共享缓存： <br/>
+ * 1、RUNNING_MODERATE：BitmapPool减半； <br/>
+ * 2、UI_HIDDEN(界面不可见，不是内存紧张)：只清空未使用的BitmapPool和空闲阴影，返回时界面不需要重建缓存； <br/>
+ * 3、RUNNING_LOW、BACKGROUND、MODERATE：清空BitmapPool和空闲阴影，BitmapCache、ShapePathCache、ShapeMaskCache减半； <br/>
+ * 4、RUNNING_CRITICAL、COMPLETE及onLowMemory：通知控件释放对缓存的引用，再清空所有缓存。 <br/>
+ * 控件只被弱引用持有，释放的内容在下次绘制时重新生成。主线程调用。 <br/>
+ */
+public final class CacheRegistry {
+    private static boolean sInstalled;
+    //弱引用集合：被回收的控件自动移除，注册为O(1)
+    private static final Set<TrimListener> sListeners =
+            Collections.newSetFromMap(new WeakHashMap<TrimListener, Boolean>());
+
+    private static final ComponentCallbacks2 sCallbacks = new ComponentCallbacks2() {
+        @Override
+        public void onTrimMemory(int level) {
+            trimMemory(level);
+        }
+
+        @Override
+        public void onConfigurationChanged(Configuration newConfig) {
+        }
+
+        @Override
+        public void onLowMemory() {
+            trimMemory(ComponentCallbacks2.TRIM_MEMORY_COMPLETE);
+        }
+    };
+
+    private CacheRegistry() {
+    }
+
+    /**
+     * 注册到Application，重复调用只注册一次(控件构造时自动调用)
+     *
+     * @param context 上下文
+     */
+    public static void install(Context context) {
+        if (sInstalled) {
+            return;
+        }
+        sInstalled = true;
+        context.getApplicationContext().registerComponentCallbacks(sCallbacks);
+    }
+
+    /**
+     * 注册释放监听，只弱引用持有，调用方需自己持有监听对象
+     *
+     * @param listener 监听
+     */
+    static void register(TrimListener listener) {
+        sListeners.add(listener);
+    }
+
+    /**
+     * 按级别收缩缓存
+     *
+     * @param level ComponentCallbacks2.TRIM_MEMORY_*
+     */
+    public static void trimMemory(int level) {
+        BitmapCache bitmapCache = BitmapCache.getInstance();
+        BitmapPool bitmapPool = BitmapPool.getInstance();
+        if (level == ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL
+                || level >= ComponentCallbacks2.TRIM_MEMORY_COMPLETE) {
+            //先让控件放开引用，阴影等引用计数的缓存才能被清除
+            dispatchTrim(level);
+            bitmapCache.evictAll();
+            bitmapPool.clear();
+            ShadowAtlas.trimIdle(0);
+            ShapePathCache.evictAll();
+            ShapeMaskCache.evictAll();
+        } else if (level == ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN) {
+            //只放开没有控件在使用的内容
+            bitmapPool.clear();
+            ShadowAtlas.trimIdle(0);
+        } else if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW) {
+            bitmapCache.trimToSize(bitmapCache.size() / 2);
+            bitmapPool.clear();
+            ShadowAtlas.trimIdle(0);
+            ShapePathCache.trimToSize(ShapePathCache.size() / 2);
+            ShapeMaskCache.trimToSize(ShapeMaskCache.size() / 2);
+        } else if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_MODERATE) {
+            bitmapPool.trimToSize(bitmapPool.size() / 2);
+        }
+    }
+
+    private static void dispatchTrim(int level) {
+        //快照遍历，回调中注册新的监听不影响本次分发
+        TrimListener[] listeners = sListeners.toArray(new TrimListener[sListeners.size()]);
+        for (TrimListener listener : listeners) {
+            if (listener != null) {
+                listener.onTrimMemory(level);
+            }
+        }
+    }
+
+    /**
+     * 调试用：各缓存当前占用的字节数
+     *
+     * @return 描述文本
+     */
+    public static String dump() {
+        BitmapCache bitmapCache = BitmapCache.getInstance();
+        BitmapPool bitmapPool = BitmapPool.getInstance();
+        return "BitmapCache(thumbs, switch snapshots): " + bitmapCache.size() + "/" + bitmapCache.maxSize() + " bytes\n"
+                + "BitmapPool: " + bitmapPool.size() + "/" + bitmapPool.maxSize() + " bytes, reuse "
+                + Math.round(bitmapPool.reuseRate() * 100) + "%\n"
+                + "ShadowAtlas: " + ShadowAtlas.byteCount() + " bytes, "
+                + ShadowAtlas.activeCount() + " active, " + ShadowAtlas.idleCount() + " idle\n"
+                + "ShapePathCache: " + ShapePathCache.size() + " paths\n"
+                + "ShapeMaskCache: " + ShapeMaskCache.size() + "/" + ShapeMaskCache.maxSize() + " bytes\n"
+                + "views: " + sListeners.size();
+    }
+
+    /**
+     * 控件释放缓存引用的监听
+     */
+    interface TrimListener {
+        /**
+         * 释放对共享缓存的引用，下次绘制时重新获取
+         *
+         * @param level ComponentCallbacks2.TRIM_MEMORY_*
+         */
+        void onTrimMemory(int level);
+    }
+}
@@ -0,0 +1,85 @@
+package com.duke.switchbutton_test;
+
+/**
+ * @Author: zhangsheng
+ * @DateTime: 2026-10-16 13:25
+ * @Description: 基于时间的动画进度(纯java) <br/>
+ * <p>
+ * 启动后进度值从1线性衰减到0，衰减速度只取决于时长，与刷新率、掉帧无关。 <br/>
+ */
+public final class FrameAnimation {
+    private long duration;
+    private long startTime;
+    private float value;
+
+    /**
+     * @param duration 动画时长ms
+     */
+    public FrameAnimation(long duration) {
+        setDuration(duration);
+    }
+
+    public void setDuration(long duration) {
+        if (duration < 0) {
+            throw new IllegalArgumentException("duration must be >= 0: " + duration);
+        }
+        this.duration = duration;
+    }
+
+    public long getDuration() {
+        return duration;
+    }
+
+    /**
+     * 启动动画，进度值重置为1
+     *
+     * @param now 当前时间ms
+     */
+    public void start(long now) {
+        startTime = now;
+        value = 1;
+    }
+
+    /**
+     * 按帧时间更新进度
+     *
+     * @param now 当前帧时间ms
+     * @return 进度值(1到0)
+     */
+    public float update(long now) {
+        if (value == 0) {
+            return 0;
+        }
+        if (duration == 0) {
+            value = 0;
+            return 0;
+        }
+        float fraction = (float) (now - startTime) / duration;
+        if (fraction >= 1) {
+            value = 0;
+        } else {
+            value = 1 - Math.max(0, fraction);
+        }
+        return value;
+    }
+
+    /**
+     * 上一次更新后的进度值
+     *
+     * @return 进度值(1到0)
+     */
+    public float getValue() {
+        return value;
+    }
+
+    public boolean isRunning() {
+        return value > 0;
+    }
+
+    /**
+     * 立即结束动画
+     */
+    public void end() {
+        value = 0;
+    }
+}
@@ -19,10 +19,11 @@ public class MainActivity extends AppCompatActivity {
         myswitchbutton.setOnToggleChangeListener(new SwitchButtonView.OnToggleChangeListener() {
             @Override
             public void onChange(boolean isToggleOn) {
-                show.setText(isToggleOn ? "女" : "男");
-                show.setTextColor(isToggleOn ? Color.GREEN : Color.RED);
+                showToggle(isToggleOn);
             }
         });
+        //监听只在状态变化时回调，初始状态需主动显示
+        showToggle(myswitchbutton.getIsToggleOn());
         show.setOnClickListener(new View.OnClickListener() {
             @Override
             public void onClick(View v) {
@@ -30,4 +31,9 @@ public class MainActivity extends AppCompatActivity {
             }
         });
     }
+
+    private void showToggle(boolean isToggleOn) {
+        show.setText(isToggleOn ? "女" : "男");
+        show.setTextColor(isToggleOn ? Color.GREEN : Color.RED);
+    }
 }
\ No newline at end of file
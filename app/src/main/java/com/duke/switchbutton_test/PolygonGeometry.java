@@ -0,0 +1,167 @@
+package com.duke.switchbutton_test;
+
+/**
+ * @Author: zhangsheng
+ * @DateTime: 2026-10-16 11:40
+ * @Description: 正多边形、星形、心形顶点计算(纯java，不依赖android) <br/>
+ * <p>
+ * 顶点按顺序写入调用方提供的float数组(x0, y0, x1, y1, ...)，计算过程不分配内存； <br/>
+ * 角度使用屏幕坐标系：0度指向右方，90度指向下方，顺时针递增。 <br/>
+ */
+public final class PolygonGeometry {
+    //第一个顶点朝上
+    public static final float ROTATION_TOP = -90f;
+    //第一个顶点朝下
+    public static final float ROTATION_BOTTOM = 90f;
+    //第一个顶点朝左
+    public static final float ROTATION_LEFT = 180f;
+    //第一个顶点朝右
+    public static final float ROTATION_RIGHT = 0f;
+
+    //心形曲线分段数范围(偶数，保证上方凹点和下方尖点都是顶点)
+    public static final int HEART_SEGMENTS_MIN = 16;
+    public static final int HEART_SEGMENTS_MAX = 256;
+    //心形折线与曲线的最大偏差px
+    private static final float HEART_TOLERANCE = 0.25f;
+    //心形曲线y方向的取值范围(x方向为-16~16)
+    private static final float HEART_Y_MIN;
+    private static final float HEART_Y_MAX;
+
+    static {
+        float min = Float.POSITIVE_INFINITY;
+        float max = Float.NEGATIVE_INFINITY;
+        for (int i = 0; i < 4096; i++) {
+            float y = heartY(2 * Math.PI * i / 4096);
+            min = Math.min(min, y);
+            max = Math.max(max, y);
+        }
+        HEART_Y_MIN = min;
+        HEART_Y_MAX = max;
+    }
+
+    private PolygonGeometry() {
+    }
+
+    /**
+     * 计算正N边形的顶点
+     *
+     * @param sides           边数(>=3)
+     * @param centerX         中心x
+     * @param centerY         中心y
+     * @param radius          外接圆半径
+     * @param rotationDegrees 第一个顶点的角度
+     * @param out             输出数组，长度至少为sides * 2
+     * @return 写入的float个数
+     */
+    public static int writePolygon(int sides, float centerX, float centerY, float radius,
+                                   float rotationDegrees, float[] out) {
+        checkArgs(sides, sides * 2, out);
+        double start = Math.toRadians(rotationDegrees);
+        double step = 2 * Math.PI / sides;
+        for (int i = 0; i < sides; i++) {
+            double angle = start + step * i;
+            out[i * 2] = centerX + (float) (Math.cos(angle) * radius);
+            out[i * 2 + 1] = centerY + (float) (Math.sin(angle) * radius);
+        }
+        return sides * 2;
+    }
+
+    /**
+     * 计算N角星的轮廓顶点(外顶点与内顶点交替，共points * 2个)
+     *
+     * @param points          角数(>=3)
+     * @param centerX         中心x
+     * @param centerY         中心y
+     * @param outerRadius     外顶点半径
+     * @param innerRadius     内顶点半径
+     * @param rotationDegrees 第一个外顶点的角度
+     * @param out             输出数组，长度至少为points * 4
+     * @return 写入的float个数
+     */
+    public static int writeStar(int points, float centerX, float centerY, float outerRadius,
+                                float innerRadius, float rotationDegrees, float[] out) {
+        checkArgs(points, points * 4, out);
+        double start = Math.toRadians(rotationDegrees);
+        double step = Math.PI / points;
+        for (int i = 0; i < points * 2; i++) {
+            double angle = start + step * i;
+            float radius = (i & 1) == 0 ? outerRadius : innerRadius;
+            out[i * 2] = centerX + (float) (Math.cos(angle) * radius);
+            out[i * 2 + 1] = centerY + (float) (Math.sin(angle) * radius);
+        }
+        return points * 4;
+    }
+
+    /**
+     * 正星形(每隔一个顶点相连，如五角星)的内顶点半径
+     *
+     * @param points      角数(>=5)
+     * @param outerRadius 外顶点半径
+     * @return 内顶点半径
+     */
+    public static float regularStarInnerRadius(int points, float outerRadius) {
+        if (points < 5) {
+            throw new IllegalArgumentException("regular star needs at least 5 points: " + points);
+        }
+        return (float) (outerRadius * Math.cos(2 * Math.PI / points) / Math.cos(Math.PI / points));
+    }
+
+    /**
+     * 按绘制尺寸计算心形曲线的分段数：弦高误差不超过0.25px，小图少分段，大图多分段
+     *
+     * @param size 心形的绘制尺寸px(宽高中较小的值)
+     * @return 分段数(偶数，HEART_SEGMENTS_MIN~HEART_SEGMENTS_MAX)
+     */
+    public static int heartSegmentCount(float size) {
+        float radius = size / 2;
+        if (!(radius > HEART_TOLERANCE)) {
+            return HEART_SEGMENTS_MIN;
+        }
+        //半径为radius的圆，弦高为tolerance时每段对应的圆心角
+        double step = 2 * Math.acos(1 - HEART_TOLERANCE / radius);
+        int segments = (int) Math.ceil(2 * Math.PI / step);
+        segments += segments & 1;
+        return Math.max(HEART_SEGMENTS_MIN, Math.min(HEART_SEGMENTS_MAX, segments));
+    }
+
+    /**
+     * 计算心形曲线的轮廓顶点：x = 16sin³t，y = 13cos t - 5cos 2t - 2cos 3t - cos 4t，
+     * 按曲线外接矩形缩放到目标区域。第一个顶点为上方凹点，第segments / 2个为下方尖点
+     *
+     * @param segments 分段数(>=3)，通常由heartSegmentCount计算
+     * @param left     目标区域左边
+     * @param top      目标区域上边
+     * @param width    目标区域宽度
+     * @param height   目标区域高度
+     * @param out      输出数组，长度至少为segments * 2
+     * @return 写入的float个数
+     */
+    public static int writeHeart(int segments, float left, float top, float width, float height, float[] out) {
+        checkArgs(segments, segments * 2, out);
+        float scaleX = width / 32f;
+        float scaleY = height / (HEART_Y_MAX - HEART_Y_MIN);
+        float centerX = left + width / 2;
+        double step = 2 * Math.PI / segments;
+        for (int i = 0; i < segments; i++) {
+            double t = step * i;
+            double sin = Math.sin(t);
+            out[i * 2] = centerX + (float) (16 * sin * sin * sin) * scaleX;
+            //曲线y轴向上，屏幕y轴向下
+            out[i * 2 + 1] = top + (HEART_Y_MAX - heartY(t)) * scaleY;
+        }
+        return segments * 2;
+    }
+
+    private static float heartY(double t) {
+        return (float) (13 * Math.cos(t) - 5 * Math.cos(2 * t) - 2 * Math.cos(3 * t) - Math.cos(4 * t));
+    }
+
+    private static void checkArgs(int count, int required, float[] out) {
+        if (count < 3) {
+            throw new IllegalArgumentException("at least 3 vertices required: " + count);
+        }
+        if (out == null || out.length < required) {
+            throw new IllegalArgumentException("output buffer too small, required " + required);
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.duke.switchbutton_test;
+
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.os.AsyncTask;
+import android.util.Log;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.WeakReference;
+
+/**
+ * @Author: zhangsheng
+ * @DateTime: 2026-10-16 17:10
+ * @Description: ShaderImageView的后台图片加载任务 <br/>
+ * <p>
+ * 在线程池中先只解码图片尺寸，按view的测量尺寸和ScaleType计算inSampleSize后再解码， <br/>
+ * 完成后回到主线程交给view安装shader；view只被弱引用持有，任务被取消或view被回收时丢弃结果。 <br/>
+ */
+final class ShaderImageLoadTask extends AsyncTask<Void, Void, Bitmap> {
+    private static final String TAG = "ShaderImageLoadTask";
+    private static final int STREAM_BUFFER_SIZE = 16 * 1024;
+
+    private final WeakReference<ShaderImageView> mViewReference;
+    //图片来源(三选一)
+    private final Resources mResources;
+    private final int mResId;
+    private final String mFilePath;
+    private final InputStream mInputStream;
+    //目标尺寸与缩放方式，执行前由view设置
+    private int mReqWidth;
+    private int mReqHeight;
+    private boolean mFitInside;
+    //指定的像素格式，null表示按图片格式自动选择
+    private Bitmap.Config mConfig;
+
+    private ShaderImageLoadTask(ShaderImageView view, Resources res, int resId, String filePath, InputStream inputStream) {
+        mViewReference = new WeakReference<>(view);
+        mResources = res;
+        mResId = resId;
+        mFilePath = filePath;
+        mInputStream = inputStream;
+    }
+
+    static ShaderImageLoadTask fromResource(ShaderImageView view, Resources res, int resId) {
+        return new ShaderImageLoadTask(view, res, resId, null, null);
+    }
+
+    static ShaderImageLoadTask fromFile(ShaderImageView view, String filePath) {
+        if (filePath == null) throw new IllegalArgumentException("empty file path");
+        return new ShaderImageLoadTask(view, null, 0, filePath, null);
+    }
+
+    static ShaderImageLoadTask fromStream(ShaderImageView view, InputStream inputStream) {
+        if (inputStream == null) throw new IllegalArgumentException("empty input stream");
+        return new ShaderImageLoadTask(view, null, 0, null, inputStream);
+    }
+
+    /**
+     * 创建相同来源的新任务，用于view重新显示时重新加载(AsyncTask只能执行一次)
+     *
+     * @return 新任务；图片流只能读取一次，返回null
+     */
+    ShaderImageLoadTask copy() {
+        if (mInputStream != null) {
+            return null;
+        }
+        ShaderImageView view = mViewReference.get();
+        return view != null ? new ShaderImageLoadTask(view, mResources, mResId, mFilePath, null) : null;
+    }
+
+    /**
+     * 在共享线程池中开始解码
+     *
+     * @param reqWidth  view宽度px
+     * @param reqHeight view高度px
+     * @param fitInside 是否完整显示(FIT_CENTER、CENTER_INSIDE)，否则按铺满view计算
+     * @param config    像素格式，null表示自动选择
+     */
+    void start(int reqWidth, int reqHeight, boolean fitInside, Bitmap.Config config) {
+        mReqWidth = reqWidth;
+        mReqHeight = reqHeight;
+        mFitInside = fitInside;
+        mConfig = config;
+        executeOnExecutor(AsyncTask.THREAD_POOL_EXECUTOR);
+    }
+
+    /**
+     * 取消尚未开始的任务，关闭不会再被读取的图片流
+     */
+    void discard() {
+        cancel(false);
+        if (mInputStream != null) {
+            closeQuietly(mInputStream);
+        }
+    }
+
+    @Override
+    protected Bitmap doInBackground(Void... params) {
+        byte[] data = null;
+        if (mInputStream != null) {
+            //流只能读取一次，先读入内存再分两次解码
+            data = readFully(mInputStream);
+            if (data == null) {
+                return null;
+            }
+        }
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        decode(data, options);
+        if (isCancelled() || options.outWidth <= 0 || options.outHeight <= 0) {
+            return null;
+        }
+        options.inSampleSize = calculateInSampleSize(options.outWidth, options.outHeight,
+                mReqWidth, mReqHeight, mFitInside);
+        options.inPreferredConfig = mConfig != null ? mConfig : BitmapPool.configForMimeType(options.outMimeType);
+        options.inJustDecodeBounds = false;
+        BitmapPool pool = BitmapPool.getInstance();
+        pool.prepareDecode(options);
+        Bitmap bitmap;
+        try {
+            bitmap = decode(data, options);
+        } catch (IllegalArgumentException e) {
+            //复用的bitmap不满足解码要求，改为新分配
+            pool.finishDecode(options, null);
+            bitmap = decode(data, options);
+        }
+        pool.finishDecode(options, bitmap);
+        return bitmap;
+    }
+
+    private Bitmap decode(byte[] data, BitmapFactory.Options options) {
+        if (data != null) {
+            return BitmapFactory.decodeByteArray(data, 0, data.length, options);
+        } else if (mFilePath != null) {
+            return BitmapFactory.decodeFile(mFilePath, options);
+        }
+        return BitmapFactory.decodeResource(mResources, mResId, options);
+    }
+
+    private static byte[] readFully(InputStream inputStream) {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(STREAM_BUFFER_SIZE);
+            byte[] buffer = new byte[STREAM_BUFFER_SIZE];
+            int count;
+            while ((count = inputStream.read(buffer)) != -1) {
+                out.write(buffer, 0, count);
+            }
+            return out.toByteArray();
+        } catch (IOException e) {
+            Log.w(TAG, "failed to read image stream", e);
+            return null;
+        } finally {
+            closeQuietly(inputStream);
+        }
+    }
+
+    private static void closeQuietly(InputStream inputStream) {
+        try {
+            inputStream.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    /**
+     * 计算2的幂次采样率，保证采样后的图片不小于在view中的显示尺寸 <br/>
+     * 1、铺满view(CENTER_CROP等)：按宽、高缩小比例中较小的一个； <br/>
+     * 2、完整显示(FIT_CENTER、CENTER_INSIDE)：按宽、高缩小比例中较大的一个。 <br/>
+     *
+     * @param srcWidth  原图宽度
+     * @param srcHeight 原图高度
+     * @param reqWidth  view宽度
+     * @param reqHeight view高度
+     * @param fitInside 是否完整显示
+     * @return inSampleSize(>=1)
+     */
+    static int calculateInSampleSize(int srcWidth, int srcHeight, int reqWidth, int reqHeight, boolean fitInside) {
+        if (reqWidth <= 0 || reqHeight <= 0) {
+            return 1;
+        }
+        float ratioWidth = (float) srcWidth / reqWidth;
+        float ratioHeight = (float) srcHeight / reqHeight;
+        float ratio = fitInside ? Math.max(ratioWidth, ratioHeight) : Math.min(ratioWidth, ratioHeight);
+        int inSampleSize = 1;
+        while (inSampleSize * 2 <= ratio) {
+            inSampleSize *= 2;
+        }
+        return inSampleSize;
+    }
+
+    @Override
+    protected void onPostExecute(Bitmap bitmap) {
+        ShaderImageView view = mViewReference.get();
+        if (view != null) {
+            view.onImageLoaded(this, bitmap);
+        } else if (bitmap != null) {
+            BitmapPool.getInstance().put(bitmap);
+        }
+    }
+
+    @Override
+    protected void onCancelled(Bitmap bitmap) {
+        //被取消的结果没有人使用，放回池中复用
+        if (bitmap != null) {
+            BitmapPool.getInstance().put(bitmap);
+        }
+    }
+}
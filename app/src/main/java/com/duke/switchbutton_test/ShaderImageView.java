@@ -9,14 +9,22 @@ import android.graphics.Color;
 import android.graphics.Matrix;
 import android.graphics.Paint;
 import android.graphics.Path;
+import android.graphics.PixelFormat;
+import android.graphics.Rect;
 import android.graphics.RectF;
 import android.graphics.Shader;
 import android.graphics.drawable.BitmapDrawable;
 import android.graphics.drawable.Drawable;
+import android.net.Uri;
+import android.support.v4.content.ContextCompat;
 import android.util.AttributeSet;
 import android.util.TypedValue;
+import android.view.MotionEvent;
 import android.widget.ImageView;
 
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
 /**
  * @Author: duke
  * @DateTime: 2016-10-31 10:49
@@ -28,7 +36,8 @@ import android.widget.ImageView;
  * 5、PENTAGON(5),          //五边形 <br/>
  * 6、HEXAGON(6),           //六边形 <br/>
  * 7、HEART(7),             //心形 <br/>
- * 8、CIRCULAR(8);          //圆形 <br/>
+ * 8、CIRCULAR(8),          //圆形 <br/>
+ * 9、CUSTOM(9);            //自定义(SVG路径数据) <br/>
  * <p/>
  * 强制宽高为正方形(width==height)：<br/>
  * 1、FIVE_POINTED_STAR(4), //五角星 <br/>
@@ -66,11 +75,78 @@ public class ShaderImageView extends ImageView {
     private static int ROUNDED_RECTANGLE_ANGLE_DEFAULT = 0;
     //默认外边框颜色
     private static final int SHADER_RING_COLOR_DEFAULT = Color.BLUE;
+    //命中测试网格的最大行数、列数
+    private static final int HIT_GRID_SIZE_MAX = 64;
+    //默认形状填充方式(路径)
+    private static final int SHAPE_RENDER_MODE_DEFAULT = ShapeRenderMode.PATH.getIntValue();
+    private static final String ANDROID_NAMESPACE = "http://schemas.android.com/apk/res/android";
 
     private Paint mPaint;
-    private Path mPath;
+    //当前形状路径(来自共享缓存，只读)
+    private Path mShapePath;
+    //形状填充方式
+    private int shapeRenderMode;
+    //当前形状遮罩(MASK模式，来自共享缓存，只读)
+    private Bitmap mShapeMask;
+    //当前形状命中测试网格(来自共享缓存，只读)
+    private ShapeHitGrid mShapeHitGrid;
+    //是否忽略形状之外的触摸
+    private boolean isIgnoreTouchOutsideShape;
+    //自定义形状的SVG路径数据
+    private String customShapePath;
+    //顶点计算缓冲区(最多十个顶点)
+    private final float[] mVertices = new float[20];
+    //心形顶点缓冲区(按分段数扩容，重复使用)
+    private float[] mHeartVertices;
     private BitmapShader mBitmapShader;
 
+    //帧间缓存：shader只在drawable变化时重建，view尺寸或ScaleType变化时只更新变换矩阵
+    private Drawable mCachedDrawable;
+    private Bitmap mCachedSourceBitmap;
+    private int mCachedSourceGenerationId;
+    private int mCachedWidth;
+    private int mCachedHeight;
+    private ScaleType mCachedScaleType;
+    //shader使用的bitmap(BitmapDrawable时即原图)
+    private Bitmap mShaderBitmap;
+    //mShaderBitmap是否为光栅化结果(来自BitmapPool，不再使用时放回)
+    private boolean mShaderBitmapPooled;
+    //光栅化、异步解码使用的像素格式，null表示自动选择(不透明图片使用RGB_565)
+    private Bitmap.Config mBitmapConfig;
+    //shader变换矩阵(按ScaleType缩放原图到view的大小)
+    private final Matrix mShaderMatrix = new Matrix();
+    //图片在view中的绘制区域
+    private final RectF mImageRect = new RectF();
+    //图片未铺满view时，填充需裁剪到图片区域
+    private boolean mClipFillToImage;
+    private final Rect mTempBounds = new Rect();
+    //bitmap、shader分配次数统计(稳定绘制时应保持不变)
+    private int mBitmapAllocationCount;
+    private int mShaderAllocationCount;
+
+    //异步加载：加载中显示的占位图
+    private Drawable mPlaceholder;
+    //当前加载任务(已执行或等待view测量完成)
+    private ShaderImageLoadTask mLoadTask;
+    private boolean mLoadTaskStarted;
+    //离开窗口时取消的加载，重新显示时按相同来源重新开始
+    private ShaderImageLoadTask mDetachedLoadTask;
+    //异步加载得到的bitmap(view持有，被替换后放回BitmapPool)
+    private Bitmap mLoadedBitmap;
+    //正在安装加载结果/占位图，不取消当前任务
+    private boolean mInstallingImage;
+    //内存紧张时放开shader、光栅化bitmap和形状路径，下次绘制时重新生成
+    private final CacheRegistry.TrimListener mTrimListener = new CacheRegistry.TrimListener() {
+        @Override
+        public void onTrimMemory(int level) {
+            releaseShaderCache();
+            mShapePath = null;
+            mShapeMask = null;
+            mShapeHitGrid = null;
+            invalidate();
+        }
+    };
+
     /**
      * 设置形状类型
      *
@@ -82,10 +158,12 @@ public class ShaderImageView extends ImageView {
      *                  5、PENTAGON(5),          //五边形 <br/>
      *                  6、HEXAGON(6),           //六边形 <br/>
      *                  7、HEART(7),             //心形 <br/>
-     *                  8、CIRCULAR(8);          //圆形 <br/>
+     *                  8、CIRCULAR(8),          //圆形 <br/>
+     *                  9、CUSTOM(9);            //自定义，需设置customShapePath <br/>
      */
     public void setTypeValue(ShaderType typeValue) {
         this.typeValue = typeValue.getIntValue();
+        updateShapePath();
     }
 
     /**
@@ -99,6 +177,7 @@ public class ShaderImageView extends ImageView {
      */
     public void setTypeVertexValue(ShaderVertexType typeVertexValue) {
         this.typeVertexValue = typeVertexValue.getIntValue();
+        updateShapePath();
     }
 
     /**
@@ -117,6 +196,7 @@ public class ShaderImageView extends ImageView {
      */
     public void setShaderRingWidth(int dimenId) {
         this.shaderRingWidth = dimen2Px(dimenId);
+        updateShapePath();
     }
 
     /**
@@ -126,6 +206,7 @@ public class ShaderImageView extends ImageView {
      */
     public void setShaderRingWidthDP(int dpVal) {
         this.shaderRingWidth = dp2Px(dpVal);
+        updateShapePath();
     }
 
     /**
@@ -155,6 +236,110 @@ public class ShaderImageView extends ImageView {
         this.roundedRectangleAngle = dp2Px(dpVal);
     }
 
+    /**
+     * 设置形状填充方式 <br/>
+     * 1、PATH(1)：每帧用shader填充形状路径，边缘抗锯齿每帧重新计算，不占额外内存； <br/>
+     * 2、MASK(2)：形状光栅化为ALPHA_8遮罩(相同形状和尺寸的实例共享)，每帧只绘制一次bitmap。 <br/>
+     * 矩形、圆角矩形不使用遮罩；外边框仍按路径描边。 <br/>
+     *
+     * @param shapeRenderMode 填充方式
+     */
+    public void setShapeRenderMode(ShapeRenderMode shapeRenderMode) {
+        this.shapeRenderMode = shapeRenderMode.getIntValue();
+        invalidate();
+    }
+
+    public int getShapeRenderMode() {
+        return shapeRenderMode;
+    }
+
+    /**
+     * 是否忽略形状之外的触摸：忽略时按下点不在形状内的事件不处理，交给下层view
+     *
+     * @param ignoreTouchOutsideShape 忽略true，不忽略false(默认，整个矩形区域都响应)
+     */
+    public void setIgnoreTouchOutsideShape(boolean ignoreTouchOutsideShape) {
+        isIgnoreTouchOutsideShape = ignoreTouchOutsideShape;
+    }
+
+    public boolean isIgnoreTouchOutsideShape() {
+        return isIgnoreTouchOutsideShape;
+    }
+
+    /**
+     * 设置自定义形状(SVG路径数据)，同时把形状类型设为CUSTOM <br/>
+     * 路径按外接矩形缩放到view大小(扣除外边框)；相同的路径数据只解析一次，所有实例共享
+     *
+     * @param pathData SVG路径数据，如"M0,0 L10,0 L5,8 Z"
+     * @throws IllegalArgumentException 路径数据格式错误
+     */
+    public void setCustomShapePath(String pathData) {
+        //提前解析，格式错误在调用处抛出
+        ShapePathCache.getPathData(pathData);
+        this.customShapePath = pathData;
+        this.typeValue = ShaderType.CUSTOM.getIntValue();
+        updateShapePath();
+    }
+
+    public String getCustomShapePath() {
+        return customShapePath;
+    }
+
+    /**
+     * 坐标是否落在绘制的形状内：矩形、圆角矩形、圆形直接计算，其他形状查询共享的占用网格(常数时间)
+     *
+     * @param x view坐标x
+     * @param y view坐标y
+     * @return 是否在形状内
+     */
+    public boolean isPointInShape(float x, float y) {
+        int width = getWidth();
+        int height = getHeight();
+        if (x < 0 || y < 0 || x >= width || y >= height) {
+            return false;
+        }
+        //图片未铺满view时，只有图片区域有内容
+        if (mBitmapShader != null && mClipFillToImage && !mImageRect.contains(x, y)) {
+            return false;
+        }
+        if (typeValue == ShaderType.RECTANGLE.getIntValue()) {
+            return true;
+        } else if (typeValue == ShaderType.ROUNDED_RECTANGLE.getIntValue()) {
+            return isPointInRoundedRectangle(x, y, width, height);
+        } else if (typeValue == ShaderType.CIRCULAR.getIntValue()) {
+            float dx = x - (width >> 1);
+            float dy = y - (height >> 1);
+            int radius = getCircularRadius();
+            return dx * dx + dy * dy <= radius * radius;
+        }
+        ShapeHitGrid grid = getShapeHitGrid();
+        return grid == null || grid.contains(x, y);
+    }
+
+    private boolean isPointInRoundedRectangle(float x, float y, int width, int height) {
+        float inset = shaderRingWidth / 2;
+        float left = inset, top = inset, right = width - inset, bottom = height - inset;
+        if (x < left || y < top || x > right || y > bottom) {
+            return false;
+        }
+        float radius = Math.min(roundedRectangleAngle, Math.min(right - left, bottom - top) / 2);
+        //只有四个角需要按圆判断
+        float cx = x < left + radius ? left + radius : (x > right - radius ? right - radius : x);
+        float cy = y < top + radius ? top + radius : (y > bottom - radius ? bottom - radius : y);
+        float dx = x - cx;
+        float dy = y - cy;
+        return dx * dx + dy * dy <= radius * radius;
+    }
+
+    @Override
+    public boolean dispatchTouchEvent(MotionEvent event) {
+        if (isIgnoreTouchOutsideShape && event.getActionMasked() == MotionEvent.ACTION_DOWN
+                && !isPointInShape(event.getX(), event.getY())) {
+            return false;
+        }
+        return super.dispatchTouchEvent(event);
+    }
+
     public int getTypeValue() {
         return typeValue;
     }
@@ -163,6 +348,26 @@ public class ShaderImageView extends ImageView {
         return typeVertexValue;
     }
 
+    /**
+     * 指定光栅化drawable、异步解码图片使用的像素格式 <br/>
+     * 默认null自动选择：不透明的drawable和JPEG图片使用RGB_565，其他使用ARGB_8888； <br/>
+     * 形状之外的区域不绘制，不透明图片裁剪成形状后仍然保留透明边缘。 <br/>
+     *
+     * @param config 像素格式，null表示自动选择
+     */
+    public void setBitmapConfig(Bitmap.Config config) {
+        if (mBitmapConfig != config) {
+            mBitmapConfig = config;
+            //重新光栅化
+            releaseShaderCache();
+            invalidate();
+        }
+    }
+
+    public Bitmap.Config getBitmapConfig() {
+        return mBitmapConfig;
+    }
+
     public boolean isNeedShaderRing() {
         return isNeedShaderRing;
     }
@@ -179,6 +384,215 @@ public class ShaderImageView extends ImageView {
         return roundedRectangleAngle;
     }
 
+    /**
+     * 获取绘制过程中创建bitmap的累计次数
+     *
+     * @return 次数
+     */
+    public int getBitmapAllocationCount() {
+        return mBitmapAllocationCount;
+    }
+
+    /**
+     * 获取绘制过程中创建BitmapShader的累计次数
+     *
+     * @return 次数
+     */
+    public int getShaderAllocationCount() {
+        return mShaderAllocationCount;
+    }
+
+    /**
+     * 清零分配次数统计
+     */
+    public void resetAllocationCounts() {
+        mBitmapAllocationCount = 0;
+        mShaderAllocationCount = 0;
+    }
+
+    /**
+     * 设置异步加载时显示的占位图
+     *
+     * @param placeholder 占位图，null表示加载中不显示图片
+     */
+    public void setPlaceholder(Drawable placeholder) {
+        mPlaceholder = placeholder;
+    }
+
+    /**
+     * 设置异步加载时显示的占位图
+     *
+     * @param resId 占位图资源id
+     */
+    public void setPlaceholder(int resId) {
+        setPlaceholder(ContextCompat.getDrawable(getContext(), resId));
+    }
+
+    /**
+     * 在后台线程解码资源图片，按view尺寸降采样后显示 <br/>
+     * 加载得到的bitmap由view持有，被替换后放回BitmapPool复用，外部不要持有
+     *
+     * @param resId 图片资源id
+     */
+    public void loadImage(int resId) {
+        startLoad(ShaderImageLoadTask.fromResource(this, getResources(), resId));
+    }
+
+    /**
+     * 在后台线程解码图片文件，按view尺寸降采样后显示
+     *
+     * @param filePath 图片文件路径
+     */
+    public void loadImage(String filePath) {
+        startLoad(ShaderImageLoadTask.fromFile(this, filePath));
+    }
+
+    /**
+     * 在后台线程读取并解码图片流，按view尺寸降采样后显示，流读取后自动关闭
+     *
+     * @param inputStream 图片流
+     */
+    public void loadImage(InputStream inputStream) {
+        startLoad(ShaderImageLoadTask.fromStream(this, inputStream));
+    }
+
+    /**
+     * 取消正在进行的异步加载(列表中view被复用绑定新数据时调用)
+     */
+    public void cancelLoad() {
+        mDetachedLoadTask = null;
+        if (mLoadTask != null) {
+            if (mLoadTaskStarted) {
+                mLoadTask.cancel(false);
+            } else {
+                mLoadTask.discard();
+            }
+            mLoadTask = null;
+        }
+    }
+
+    /**
+     * 取消旧任务并显示占位图；view尚未测量时，等到尺寸确定后再开始解码
+     *
+     * @param task 新的加载任务
+     */
+    private void startLoad(ShaderImageLoadTask task) {
+        cancelLoad();
+        installImage(mPlaceholder);
+        releaseLoadedBitmap();
+        mLoadTask = task;
+        mLoadTaskStarted = false;
+        startPendingLoad();
+    }
+
+    private void startPendingLoad() {
+        if (mLoadTask == null || mLoadTaskStarted || getWidth() <= 0 || getHeight() <= 0) {
+            return;
+        }
+        ScaleType scaleType = getScaleType();
+        boolean fitInside = scaleType == ScaleType.FIT_CENTER || scaleType == ScaleType.CENTER_INSIDE;
+        mLoadTaskStarted = true;
+        mLoadTask.start(getWidth(), getHeight(), fitInside, mBitmapConfig);
+    }
+
+    /**
+     * 加载任务完成(主线程)，只接受当前任务的结果，并立即准备好shader
+     *
+     * @param task   完成的任务
+     * @param bitmap 解码结果，失败时为null(保留占位图)
+     */
+    void onImageLoaded(ShaderImageLoadTask task, Bitmap bitmap) {
+        if (task != mLoadTask) {
+            //过期的结果直接放回池中
+            BitmapPool.getInstance().put(bitmap);
+            return;
+        }
+        mLoadTask = null;
+        if (bitmap == null) {
+            return;
+        }
+        installImage(new BitmapDrawable(getResources(), bitmap));
+        releaseLoadedBitmap();
+        mLoadedBitmap = bitmap;
+        if (getWidth() > 0 && getHeight() > 0) {
+            ensureShader(getDrawable());
+        }
+    }
+
+    /**
+     * 异步加载的bitmap不再显示时放回BitmapPool
+     */
+    private void releaseLoadedBitmap() {
+        if (mLoadedBitmap != null) {
+            Bitmap bitmap = mLoadedBitmap;
+            mLoadedBitmap = null;
+            BitmapPool.getInstance().put(bitmap);
+        }
+    }
+
+    private void installImage(Drawable drawable) {
+        mInstallingImage = true;
+        try {
+            super.setImageDrawable(drawable);
+        } finally {
+            mInstallingImage = false;
+        }
+    }
+
+    //直接设置图片时取消正在进行的异步加载，防止旧结果覆盖
+    @Override
+    public void setImageDrawable(Drawable drawable) {
+        if (!mInstallingImage) {
+            cancelLoad();
+        }
+        super.setImageDrawable(drawable);
+        if (!mInstallingImage) {
+            releaseLoadedBitmap();
+        }
+    }
+
+    @Override
+    public void setImageResource(int resId) {
+        cancelLoad();
+        super.setImageResource(resId);
+        releaseLoadedBitmap();
+    }
+
+    @Override
+    public void setImageURI(Uri uri) {
+        cancelLoad();
+        super.setImageURI(uri);
+        releaseLoadedBitmap();
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        //光栅化的bitmap放回池中，重新显示时再生成
+        releaseShaderCache();
+        //离开窗口后取消解码(已解码的bitmap放回池中)，记下来源，重新显示时再加载；
+        //图片流无法重新读取，继续加载
+        if (mLoadTask != null) {
+            ShaderImageLoadTask restart = mLoadTask.copy();
+            if (restart != null) {
+                cancelLoad();
+                mDetachedLoadTask = restart;
+            }
+        }
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        //未被重新绑定(RecyclerView缓存、ViewPager页面)时，继续离开窗口前未完成的加载
+        if (mDetachedLoadTask != null) {
+            mLoadTask = mDetachedLoadTask;
+            mLoadTaskStarted = false;
+            mDetachedLoadTask = null;
+            startPendingLoad();
+        }
+    }
+
     /**
      * 构造函数
      *
@@ -201,6 +615,8 @@ public class ShaderImageView extends ImageView {
         typeValue = TYPE_VALUE_DEFAULT;
         //形状顶点默认向上
         typeVertexValue = TYPE_VERTEX_VALUE_DEFAULT;
+        //形状默认按路径填充
+        shapeRenderMode = SHAPE_RENDER_MODE_DEFAULT;
         //初始化自定义属性
         TypedArray typedArray = context.obtainStyledAttributes(attrs, R.styleable.ShaderImageView, defStyleAttr, 0);
         int size = typedArray.getIndexCount();
@@ -231,13 +647,30 @@ public class ShaderImageView extends ImageView {
                     //圆角矩形圆滑角度
                     roundedRectangleAngle = typedArray.getDimensionPixelOffset(attr, ROUNDED_RECTANGLE_ANGLE_DEFAULT);
                     break;
+                case R.styleable.ShaderImageView_ignoreTouchOutsideShape:
+                    //是否忽略形状之外的触摸
+                    isIgnoreTouchOutsideShape = typedArray.getBoolean(attr, false);
+                    break;
+                case R.styleable.ShaderImageView_shapeRenderMode:
+                    //形状填充方式
+                    shapeRenderMode = typedArray.getInt(attr, SHAPE_RENDER_MODE_DEFAULT);
+                    break;
+                case R.styleable.ShaderImageView_customShapePath:
+                    //自定义形状的SVG路径数据
+                    customShapePath = typedArray.getString(attr);
+                    break;
             }
         }
         typedArray.recycle();
+        //未指定android:scaleType时默认居中裁剪(保持旧版铺满view的效果)
+        if (attrs == null || attrs.getAttributeValue(ANDROID_NAMESPACE, "scaleType") == null) {
+            setScaleType(ScaleType.CENTER_CROP);
+        }
         mPaint = new Paint();
         mPaint.setAntiAlias(true);
         mPaint.setFilterBitmap(true);
-        mPath = new Path();
+        CacheRegistry.install(context);
+        CacheRegistry.register(mTrimListener);
     }
 
     /**
@@ -268,6 +701,15 @@ public class ShaderImageView extends ImageView {
         setMeasuredDimension(widthSize, heightSize);
     }
 
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        //尺寸变化时准备形状路径，绘制时直接使用
+        refreshShapePath();
+        //等待测量完成的异步加载
+        startPendingLoad();
+    }
+
     /**
      * 绘制界面
      *
@@ -285,14 +727,9 @@ public class ShaderImageView extends ImageView {
         if (drawable == null) {
             return;
         }
-        Bitmap bitmap = drawableToBitamp(drawable);
-        if (bitmap == null) {
+        if (!ensureShader(drawable)) {
             return;
         }
-        //将bitmap作为着色器，就是在指定区域内绘制bitmap
-        mBitmapShader = new BitmapShader(bitmap, Shader.TileMode.CLAMP, Shader.TileMode.CLAMP);
-        //设置变换矩阵(按比例缩放原图到view的大小)
-        //mBitmapShader.setLocalMatrix(mMatrix);
         //设置shader
         mPaint.setShader(mBitmapShader);
         /**
@@ -304,7 +741,8 @@ public class ShaderImageView extends ImageView {
          * 5、PENTAGON(5),          //五边形 <br/>
          * 6、HEXAGON(6),           //六边形 <br/>
          * 7、HEART(7),             //心形 <br/>
-         * 8、CIRCULAR(8);          //圆形 <br/>
+         * 8、CIRCULAR(8),          //圆形 <br/>
+         * 9、CUSTOM(9);            //自定义 <br/>
          */
         if (typeValue == ShaderType.TRIANGLE.getIntValue()) {
             //1、三角形
@@ -330,17 +768,20 @@ public class ShaderImageView extends ImageView {
         } else if (typeValue == ShaderType.CIRCULAR.getIntValue()) {
             //8、圆形
             drawCircular(canvas);
+        } else if (typeValue == ShaderType.CUSTOM.getIntValue()) {
+            //9、自定义
+            drawCustom(canvas);
         }
     }
 
     //1、三角形
     private void drawTriangle(Canvas canvas) {
         //1、绘制目标原图
-        canvas.drawPath(createTrianglePath(), mPaint);
+        fillShape(canvas);
         if (isNeedShaderRing) {
             //2、绘制边框修饰
             setPaintStrokeAndParams();
-            canvas.drawPath(createTrianglePath(), mPaint);
+            canvas.drawPath(getShapePath(), mPaint);
             //重置画笔为shader模式
             resetPaint();
         }
@@ -348,13 +789,17 @@ public class ShaderImageView extends ImageView {
 
     //2、矩形(不做任何处理)
     private void drawRectangle(Canvas canvas) {
+        int saveCount = beginFill(canvas);
         canvas.drawRect(0, 0, getWidth(), getHeight(), mPaint);
+        endFill(canvas, saveCount);
     }
 
     //3、圆角矩形
     private void drawRoundedRectangle(Canvas canvas) {
         RectF rectF = new RectF(shaderRingWidth / 2, shaderRingWidth / 2, getWidth() - shaderRingWidth / 2, getHeight() - shaderRingWidth / 2);
+        int saveCount = beginFill(canvas);
         canvas.drawRoundRect(rectF, roundedRectangleAngle, roundedRectangleAngle, mPaint);
+        endFill(canvas, saveCount);
         if (isNeedShaderRing) {
             //2、绘制边框修饰
             setPaintStrokeAndParams();
@@ -372,20 +817,20 @@ public class ShaderImageView extends ImageView {
         if (isNeedShaderRing) {
             //2、绘制边框修饰
             setPaintStrokeAndParams();
-            canvas.drawPath(createFivePointedPath(getWidth() >> 1), mPaint);
+            canvas.drawPath(getShapePath(), mPaint);
             //重置画笔为shader模式
             resetPaint();
         }
-        canvas.drawPath(createFivePointedPath(getWidth() >> 1), mPaint);
+        fillShape(canvas);
     }
 
     //5、五边形
     private void drawPentagon(Canvas canvas) {
-        canvas.drawPath(createFivePointedPath(getWidth() >> 1), mPaint);
+        fillShape(canvas);
         if (isNeedShaderRing) {
             //2、绘制边框修饰
             setPaintStrokeAndParams();
-            canvas.drawPath(createFivePointedPath(getWidth() >> 1), mPaint);
+            canvas.drawPath(getShapePath(), mPaint);
             //重置画笔为shader模式
             resetPaint();
         }
@@ -393,11 +838,11 @@ public class ShaderImageView extends ImageView {
 
     //6、六边形
     private void drawHexagon(Canvas canvas) {
-        canvas.drawPath(createSixPointedPath(getWidth() >> 1), mPaint);
+        fillShape(canvas);
         if (isNeedShaderRing) {
             //2、绘制边框修饰
             setPaintStrokeAndParams();
-            canvas.drawPath(createSixPointedPath(getWidth() >> 1), mPaint);
+            canvas.drawPath(getShapePath(), mPaint);
             //重置画笔为shader模式
             resetPaint();
         }
@@ -405,11 +850,11 @@ public class ShaderImageView extends ImageView {
 
     //7、心形
     private void drawHeart(Canvas canvas) {
-        canvas.drawPath(createHeartPath(), mPaint);
+        fillShape(canvas);
         if (isNeedShaderRing) {
             //2、绘制边框修饰
             setPaintStrokeAndParams();
-            canvas.drawPath(createHeartPath(), mPaint);
+            canvas.drawPath(getShapePath(), mPaint);
             //重置画笔为shader模式
             resetPaint();
         }
@@ -418,268 +863,356 @@ public class ShaderImageView extends ImageView {
     //8、圆形
     private void drawCircular(Canvas canvas) {
         //偏移量(可调整)，防止切边
-        int offset = 2;
-        canvas.drawCircle((getWidth() >> 1), (getHeight() >> 1), ((getWidth() - shaderRingWidth) >> 1) - offset, mPaint);
+        fillShape(canvas);
         if (isNeedShaderRing) {
             //2、绘制边框修饰
             setPaintStrokeAndParams();
-            canvas.drawCircle(getWidth() >> 1, getHeight() >> 1, ((getWidth() - shaderRingWidth) >> 1) - offset, mPaint);
+            canvas.drawCircle(getWidth() >> 1, getHeight() >> 1, getCircularRadius(), mPaint);
             //重置画笔为shader模式
             resetPaint();
         }
     }
 
+    //9、自定义
+    private void drawCustom(Canvas canvas) {
+        fillShape(canvas);
+        if (isNeedShaderRing) {
+            //2、绘制边框修饰
+            setPaintStrokeAndParams();
+            canvas.drawPath(getShapePath(), mPaint);
+            //重置画笔为shader模式
+            resetPaint();
+        }
+    }
+
+    //圆形半径，偏移量(可调整)防止切边
+    private int getCircularRadius() {
+        int offset = 2;
+        return ((getWidth() - shaderRingWidth) >> 1) - offset;
+    }
+
+    /**
+     * 用shader填充当前形状：PATH模式直接填充路径(圆形直接画圆)，MASK模式通过共享的ALPHA_8遮罩绘制
+     *
+     * @param canvas 画布
+     */
+    private void fillShape(Canvas canvas) {
+        int saveCount = beginFill(canvas);
+        Bitmap mask = shapeRenderMode == ShapeRenderMode.MASK.getIntValue() ? getShapeMask() : null;
+        if (mask != null) {
+            //ALPHA_8的bitmap使用画笔的shader着色
+            canvas.drawBitmap(mask, 0, 0, mPaint);
+        } else if (typeValue == ShaderType.CIRCULAR.getIntValue()) {
+            canvas.drawCircle(getWidth() >> 1, getHeight() >> 1, getCircularRadius(), mPaint);
+        } else {
+            canvas.drawPath(getShapePath(), mPaint);
+        }
+        endFill(canvas, saveCount);
+    }
+
+    /**
+     * 获取当前形状的遮罩：相同(形状、顶点位置、宽、高、外边框宽度)的实例共享同一份缓存遮罩，
+     * 只在缓存未命中时光栅化
+     *
+     * @return 遮罩，view尚未测量时返回null
+     */
+    private Bitmap getShapeMask() {
+        if (mShapeMask != null) {
+            return mShapeMask;
+        }
+        int width = getWidth();
+        int height = getHeight();
+        if (width <= 0 || height <= 0) {
+            return null;
+        }
+        ShapePathCache.Key key = createShapeKey(width, height);
+        Bitmap mask = ShapeMaskCache.get(key);
+        if (mask == null) {
+            mask = Bitmap.createBitmap(width, height, Bitmap.Config.ALPHA_8);
+            Canvas canvas = new Canvas(mask);
+            Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+            if (typeValue == ShaderType.CIRCULAR.getIntValue()) {
+                canvas.drawCircle(width >> 1, height >> 1, getCircularRadius(), paint);
+            } else {
+                canvas.drawPath(getShapePath(), paint);
+            }
+            ShapeMaskCache.put(key, mask);
+        }
+        mShapeMask = mask;
+        return mask;
+    }
+
+    /**
+     * 获取当前形状的命中测试网格：把形状路径缩小光栅化到最多64 * 64的格子，相同形状和尺寸的实例共享
+     *
+     * @return 网格，view尚未测量时返回null
+     */
+    private ShapeHitGrid getShapeHitGrid() {
+        if (mShapeHitGrid != null) {
+            return mShapeHitGrid;
+        }
+        int width = getWidth();
+        int height = getHeight();
+        if (width <= 0 || height <= 0) {
+            return null;
+        }
+        ShapePathCache.Key key = createShapeKey(width, height);
+        ShapeHitGrid grid = ShapePathCache.getHitGrid(key);
+        if (grid == null) {
+            int columns = Math.min(width, HIT_GRID_SIZE_MAX);
+            int rows = Math.min(height, HIT_GRID_SIZE_MAX);
+            Bitmap cells = Bitmap.createBitmap(columns, rows, Bitmap.Config.ALPHA_8);
+            Canvas canvas = new Canvas(cells);
+            canvas.scale((float) columns / width, (float) rows / height);
+            //抗锯齿边缘的格子也算命中，边缘触摸更宽松
+            canvas.drawPath(getShapePath(), new Paint(Paint.ANTI_ALIAS_FLAG));
+            ByteBuffer buffer = ByteBuffer.allocate(cells.getRowBytes() * rows);
+            cells.copyPixelsToBuffer(buffer);
+            grid = ShapeHitGrid.fromAlpha(buffer.array(), cells.getRowBytes(), columns, rows, width, height);
+            cells.recycle();
+            ShapePathCache.putHitGrid(key, grid);
+        }
+        mShapeHitGrid = grid;
+        return grid;
+    }
+
     //三角形路径(顶点上、下、左、右4种情况)
-    private Path createTrianglePath() {
-        mPath.reset();
+    private void createTrianglePath(Path path, int width, int height) {
         if (typeVertexValue == ShaderVertexType.VERTEX_RIGHT.getIntValue()) {
             //右
-            mPath.moveTo(shaderRingWidth / 2, shaderRingWidth);//左上角
-            mPath.lineTo(getWidth() - shaderRingWidth * 3 / 4, (getHeight() >> 1));//右中
-            mPath.lineTo(shaderRingWidth / 2, getHeight() - shaderRingWidth);//左下角
-            mPath.lineTo(shaderRingWidth / 2, shaderRingWidth);//左上角
+            path.moveTo(shaderRingWidth / 2, shaderRingWidth);//左上角
+            path.lineTo(width - shaderRingWidth * 3 / 4, (height >> 1));//右中
+            path.lineTo(shaderRingWidth / 2, height - shaderRingWidth);//左下角
+            path.lineTo(shaderRingWidth / 2, shaderRingWidth);//左上角
         } else if (typeVertexValue == ShaderVertexType.VERTEX_BOTTOM.getIntValue()) {
             //下
-            mPath.moveTo(shaderRingWidth, shaderRingWidth / 2);
-            mPath.lineTo(getWidth() - shaderRingWidth, shaderRingWidth / 2);
-            mPath.lineTo(getWidth() >> 1, getHeight() - shaderRingWidth);
-            mPath.lineTo(shaderRingWidth, shaderRingWidth / 2);
+            path.moveTo(shaderRingWidth, shaderRingWidth / 2);
+            path.lineTo(width - shaderRingWidth, shaderRingWidth / 2);
+            path.lineTo(width >> 1, height - shaderRingWidth);
+            path.lineTo(shaderRingWidth, shaderRingWidth / 2);
         } else if (typeVertexValue == ShaderVertexType.VERTEX_LEFT.getIntValue()) {
             //左
-            mPath.moveTo(shaderRingWidth * 5 / 4, getHeight() >> 1);
-            mPath.lineTo(getWidth() - shaderRingWidth / 2, shaderRingWidth * 3 / 4);
-            mPath.lineTo(getWidth() - shaderRingWidth / 2, getHeight() - shaderRingWidth * 3 / 4);
-            mPath.lineTo(shaderRingWidth * 5 / 4, getHeight() >> 1);
+            path.moveTo(shaderRingWidth * 5 / 4, height >> 1);
+            path.lineTo(width - shaderRingWidth / 2, shaderRingWidth * 3 / 4);
+            path.lineTo(width - shaderRingWidth / 2, height - shaderRingWidth * 3 / 4);
+            path.lineTo(shaderRingWidth * 5 / 4, height >> 1);
         } else if (typeVertexValue == ShaderVertexType.VERTEX_TOP.getIntValue()) {
             //上
-            mPath.moveTo(getWidth() >> 1, shaderRingWidth * 5 / 4);
-            mPath.lineTo(getWidth() - shaderRingWidth * 3 / 4, getHeight() - shaderRingWidth / 2);
-            mPath.lineTo(shaderRingWidth * 3 / 4, getHeight() - shaderRingWidth / 2);
-            mPath.lineTo(getWidth() >> 1, shaderRingWidth * 5 / 4);
+            path.moveTo(width >> 1, shaderRingWidth * 5 / 4);
+            path.lineTo(width - shaderRingWidth * 3 / 4, height - shaderRingWidth / 2);
+            path.lineTo(shaderRingWidth * 3 / 4, height - shaderRingWidth / 2);
+            path.lineTo(width >> 1, shaderRingWidth * 5 / 4);
         }
-        mPath.close();
-        return mPath;
+        path.close();
     }
 
     /**
      * 计算五角星、五边形需要的5个顶点路径
      *
-     * @param radius
-     * @return
+     * @param path   目标路径
+     * @param width  宽度
+     * @param height 高度
+     * @param radius 外接圆半径
      */
-    private Path createFivePointedPath(int radius) {
+    private void createFivePointedPath(Path path, int width, int height, int radius) {
         radius -= shaderRingWidth;
-        mPath.reset();
+        float centerX = width >> 1;
+        float centerY = height >> 1;
+        //外边框偏移，中心向顶点反方向移动半个边框宽度
+        int ringOffset = shaderRingWidth / 2;
+        float rotation;
         if (typeVertexValue == ShaderVertexType.VERTEX_RIGHT.getIntValue()) {
             //右
-            if (typeValue == ShaderType.FIVE_POINTED_STAR.getIntValue()) {
-                //五角星
-                //点1
-                mPath.moveTo((getWidth() >> 1) + radius - shaderRingWidth / 2, getHeight() >> 1);
-                //点3
-                mPath.lineTo((getWidth() >> 1) - (float) (Math.cos(degree2Radian(36)) * radius) - shaderRingWidth / 2,
-                        (getHeight() >> 1) + (float) (Math.sin(degree2Radian(36)) * radius));
-                //点5
-                mPath.lineTo((getWidth() >> 1) + (float) (Math.sin(degree2Radian(18)) * radius) - shaderRingWidth / 2,
-                        (getHeight() >> 1) - (float) (Math.cos(degree2Radian(18)) * radius));
-                //点2
-                mPath.lineTo((getWidth() >> 1) + (float) (Math.sin(degree2Radian(18)) * radius) - shaderRingWidth / 2,
-                        (getHeight() >> 1) + (float) (Math.cos(degree2Radian(18)) * radius));
-                //点4
-                mPath.lineTo((getWidth() >> 1) - (float) (Math.cos(degree2Radian(36)) * radius) - shaderRingWidth / 2,
-                        (getHeight() >> 1) - (float) (Math.sin(degree2Radian(36)) * radius));
-            } else if (typeValue == ShaderType.PENTAGON.getIntValue()) {
-                //五边形
-                //点1
-                mPath.moveTo((getWidth() >> 1) + radius - shaderRingWidth / 2, getHeight() >> 1);
-                //点2
-                mPath.lineTo((getWidth() >> 1) + (float) (Math.sin(degree2Radian(18)) * radius) - shaderRingWidth / 2,
-                        (getHeight() >> 1) + (float) (Math.cos(degree2Radian(18)) * radius));
-                //点3
-                mPath.lineTo((getWidth() >> 1) - (float) (Math.cos(degree2Radian(36)) * radius) - shaderRingWidth / 2,
-                        (getHeight() >> 1) + (float) (Math.sin(degree2Radian(36)) * radius));
-                //点4
-                mPath.lineTo((getWidth() >> 1) - (float) (Math.cos(degree2Radian(36)) * radius) - shaderRingWidth / 2,
-                        (getHeight() >> 1) - (float) (Math.sin(degree2Radian(36)) * radius));
-                //点5
-                mPath.lineTo((getWidth() >> 1) + (float) (Math.sin(degree2Radian(18)) * radius) - shaderRingWidth / 2,
-                        (getHeight() >> 1) - (float) (Math.cos(degree2Radian(18)) * radius));
-            }
+            rotation = PolygonGeometry.ROTATION_RIGHT;
+            centerX -= ringOffset;
         } else if (typeVertexValue == ShaderVertexType.VERTEX_BOTTOM.getIntValue()) {
             //下
-            if (typeValue == ShaderType.FIVE_POINTED_STAR.getIntValue()) {
-                //五角星
-                //点1
-                mPath.moveTo(getWidth() >> 1, (getHeight() >> 1) + radius - shaderRingWidth / 2);
-                //点3
-                mPath.lineTo((getWidth() >> 1) - (float) (Math.cos(degree2Radian(54)) * radius),
-                        (getHeight() >> 1) - (float) (Math.sin(degree2Radian(54)) * radius) - shaderRingWidth / 2);
-                //点5
-                mPath.lineTo((getWidth() >> 1) + (float) (Math.cos(degree2Radian(18)) * radius),
-                        (getHeight() >> 1) + (float) (Math.sin(degree2Radian(18)) * radius) - shaderRingWidth / 2);
-                //点2
-                mPath.lineTo((getWidth() >> 1) - (float) (Math.cos(degree2Radian(18)) * radius),
-                        (getHeight() >> 1) + (float) (Math.sin(degree2Radian(18)) * radius) - shaderRingWidth / 2);
-                //点4
-                mPath.lineTo((getWidth() >> 1) + (float) (Math.cos(degree2Radian(54)) * radius),
-                        (getHeight() >> 1) - (float) (Math.sin(degree2Radian(54)) * radius) - shaderRingWidth / 2);
-            } else if (typeValue == ShaderType.PENTAGON.getIntValue()) {
-                //五边形
-                //点1
-                mPath.moveTo(getWidth() >> 1, (getHeight() >> 1) + radius - shaderRingWidth / 2);
-                //点2
-                mPath.lineTo((getWidth() >> 1) - (float) (Math.cos(degree2Radian(18)) * radius),
-                        (getHeight() >> 1) + (float) (Math.sin(degree2Radian(18)) * radius) - shaderRingWidth / 2);
-                //点3
-                mPath.lineTo((getWidth() >> 1) - (float) (Math.cos(degree2Radian(54)) * radius),
-                        (getHeight() >> 1) - (float) (Math.sin(degree2Radian(54)) * radius) - shaderRingWidth / 2);
-                //点4
-                mPath.lineTo((getWidth() >> 1) + (float) (Math.cos(degree2Radian(54)) * radius),
-                        (getHeight() >> 1) - (float) (Math.sin(degree2Radian(54)) * radius) - shaderRingWidth / 2);
-                //点5
-                mPath.lineTo((getWidth() >> 1) + (float) (Math.cos(degree2Radian(18)) * radius),
-                        (getHeight() >> 1) + (float) (Math.sin(degree2Radian(18)) * radius) - shaderRingWidth / 2);
-            }
+            rotation = PolygonGeometry.ROTATION_BOTTOM;
+            centerY -= ringOffset;
         } else if (typeVertexValue == ShaderVertexType.VERTEX_LEFT.getIntValue()) {
             //左
-            if (typeValue == ShaderType.FIVE_POINTED_STAR.getIntValue()) {
-                //五角星
-                //点1
-                mPath.moveTo((getWidth() >> 1) - radius + shaderRingWidth / 2, getHeight() >> 1);
-                //点3
-                mPath.lineTo((getWidth() >> 1) + (float) (Math.cos(degree2Radian(36)) * radius) + shaderRingWidth / 2,
-                        (getHeight() >> 1) - (float) (Math.sin(degree2Radian(36)) * radius));
-                //点5
-                mPath.lineTo((getWidth() >> 1) - (float) (Math.sin(degree2Radian(18)) * radius) + shaderRingWidth / 2,
-                        (getHeight() >> 1) + (float) (Math.cos(degree2Radian(18)) * radius));
-                //点2
-                mPath.lineTo((getWidth() >> 1) - (float) (Math.sin(degree2Radian(18)) * radius) + shaderRingWidth / 2,
-                        (getHeight() >> 1) - (float) (Math.cos(degree2Radian(18)) * radius));
-                //点4
-                mPath.lineTo((getWidth() >> 1) + (float) (Math.cos(degree2Radian(36)) * radius) + shaderRingWidth / 2,
-                        (getHeight() >> 1) + (float) (Math.sin(degree2Radian(36)) * radius));
-            } else if (typeValue == ShaderType.PENTAGON.getIntValue()) {
-                //五边形
-                //点1
-                mPath.moveTo((getWidth() >> 1) - radius + shaderRingWidth / 2, getHeight() >> 1);
-                //点2
-                mPath.lineTo((getWidth() >> 1) - (float) (Math.sin(degree2Radian(18)) * radius) + shaderRingWidth / 2,
-                        (getHeight() >> 1) - (float) (Math.cos(degree2Radian(18)) * radius));
-                //点3
-                mPath.lineTo((getWidth() >> 1) + (float) (Math.cos(degree2Radian(36)) * radius) + shaderRingWidth / 2,
-                        (getHeight() >> 1) - (float) (Math.sin(degree2Radian(36)) * radius));
-                //点4
-                mPath.lineTo((getWidth() >> 1) + (float) (Math.cos(degree2Radian(36)) * radius) + shaderRingWidth / 2,
-                        (getHeight() >> 1) + (float) (Math.sin(degree2Radian(36)) * radius));
-                //点5
-                mPath.lineTo((getWidth() >> 1) - (float) (Math.sin(degree2Radian(18)) * radius) + shaderRingWidth / 2,
-                        (getHeight() >> 1) + (float) (Math.cos(degree2Radian(18)) * radius));
-            }
-        } else if (typeVertexValue == ShaderVertexType.VERTEX_TOP.getIntValue()) {
+            rotation = PolygonGeometry.ROTATION_LEFT;
+            centerX += ringOffset;
+        } else {
             //上
-            if (typeValue == ShaderType.FIVE_POINTED_STAR.getIntValue()) {
-                //五角星
-                //点1
-                mPath.moveTo(getWidth() >> 1, (getHeight() >> 1) - radius + shaderRingWidth / 2);
-                //点3
-                mPath.lineTo((getWidth() >> 1) + (float) (Math.sin(degree2Radian(36)) * radius),
-                        (getHeight() >> 1) + (float) (Math.cos(degree2Radian(36)) * radius) + shaderRingWidth / 2);
-                //点5
-                mPath.lineTo((getWidth() >> 1) - (float) (Math.cos(degree2Radian(18)) * radius),
-                        (getHeight() >> 1) - (float) (Math.sin(degree2Radian(18)) * radius) + shaderRingWidth / 2);
-                //点2
-                mPath.lineTo((getWidth() >> 1) + (float) (Math.cos(degree2Radian(18)) * radius),
-                        (getHeight() >> 1) - (float) (Math.sin(degree2Radian(18)) * radius) + shaderRingWidth / 2);
-                //点4
-                mPath.lineTo((getWidth() >> 1) - (float) (Math.sin(degree2Radian(36)) * radius),
-                        (getHeight() >> 1) + (float) (Math.cos(degree2Radian(36)) * radius) + shaderRingWidth / 2);
-            } else if (typeValue == ShaderType.PENTAGON.getIntValue()) {
-                //五边形
-                //点1
-                mPath.moveTo(getWidth() >> 1, (getHeight() >> 1) - radius + shaderRingWidth / 2);
-                //点2
-                mPath.lineTo((getWidth() >> 1) + (float) (Math.cos(degree2Radian(18)) * radius),
-                        (getHeight() >> 1) - (float) (Math.sin(degree2Radian(18)) * radius) + shaderRingWidth / 2);
-                //点3
-                mPath.lineTo((getWidth() >> 1) + (float) (Math.sin(degree2Radian(36)) * radius),
-                        (getHeight() >> 1) + (float) (Math.cos(degree2Radian(36)) * radius) + shaderRingWidth / 2);
-                //点4
-                mPath.lineTo((getWidth() >> 1) - (float) (Math.sin(degree2Radian(36)) * radius),
-                        (getHeight() >> 1) + (float) (Math.cos(degree2Radian(36)) * radius) + shaderRingWidth / 2);
-                //点5
-                mPath.lineTo((getWidth() >> 1) - (float) (Math.cos(degree2Radian(18)) * radius),
-                        (getHeight() >> 1) - (float) (Math.sin(degree2Radian(18)) * radius) + shaderRingWidth / 2);
-            }
+            rotation = PolygonGeometry.ROTATION_TOP;
+            centerY += ringOffset;
         }
-        //闭合
-        mPath.close();
-        return mPath;
+        int count;
+        if (typeValue == ShaderType.FIVE_POINTED_STAR.getIntValue()) {
+            //五角星(外顶点与内顶点交替的轮廓)
+            count = PolygonGeometry.writeStar(5, centerX, centerY, radius,
+                    PolygonGeometry.regularStarInnerRadius(5, radius), rotation, mVertices);
+        } else {
+            //五边形
+            count = PolygonGeometry.writePolygon(5, centerX, centerY, radius, rotation, mVertices);
+        }
+        addPolygon(path, mVertices, count);
     }
 
     //绘制六边形路径
-    private Path createSixPointedPath(int radius) {
+    private void createSixPointedPath(Path path, int width, int height, int radius) {
         radius -= shaderRingWidth;
-        mPath.reset();
+        float rotation;
         if (typeVertexValue == ShaderVertexType.VERTEX_LEFT.getIntValue()
                 || typeVertexValue == ShaderVertexType.VERTEX_RIGHT.getIntValue()) {
             //左、右
-            //点1
-            mPath.moveTo((getWidth() >> 1) + radius, getHeight() >> 1);
-            //点2
-            mPath.lineTo((getWidth() >> 1) + (float) (Math.sin(degree2Radian(30)) * radius),
-                    (getHeight() >> 1) + (float) (Math.cos(degree2Radian(30)) * radius));
-            //点3
-            mPath.lineTo((getWidth() >> 1) - (float) (Math.sin(degree2Radian(30)) * radius),
-                    (getHeight() >> 1) + (float) (Math.cos(degree2Radian(30)) * radius));
-            //点4
-            mPath.lineTo((getWidth() >> 1) - radius, getHeight() >> 1);
-            //点5
-            mPath.lineTo((getWidth() >> 1) - (float) (Math.sin(degree2Radian(30)) * radius),
-                    (getHeight() >> 1) - (float) (Math.cos(degree2Radian(30)) * radius));
-            //点6
-            mPath.lineTo((getWidth() >> 1) + (float) (Math.sin(degree2Radian(30)) * radius),
-                    (getHeight() >> 1) - (float) (Math.cos(degree2Radian(30)) * radius));
-        } else if (typeVertexValue == ShaderVertexType.VERTEX_TOP.getIntValue()
-                || typeVertexValue == ShaderVertexType.VERTEX_BOTTOM.getIntValue()) {
+            rotation = PolygonGeometry.ROTATION_RIGHT;
+        } else {
             //上、下
-            //点1
-            mPath.moveTo(getWidth() >> 1, (getHeight() >> 1) - radius);
-            //点2
-            mPath.lineTo((getWidth() >> 1) + (float) (Math.cos(degree2Radian(30)) * radius),
-                    (getHeight() >> 1) - (float) (Math.sin(degree2Radian(30)) * radius));
-            //点3
-            mPath.lineTo((getWidth() >> 1) + (float) (Math.cos(degree2Radian(30)) * radius),
-                    (getHeight() >> 1) + (float) (Math.sin(degree2Radian(30)) * radius));
-            //点4
-            mPath.lineTo(getWidth() >> 1, (getHeight() >> 1) + radius);
-            //点5
-            mPath.lineTo((getWidth() >> 1) - (float) (Math.cos(degree2Radian(30)) * radius),
-                    (getHeight() >> 1) + (float) (Math.sin(degree2Radian(30)) * radius));
-            //点6
-            mPath.lineTo((getWidth() >> 1) - (float) (Math.cos(degree2Radian(30)) * radius),
-                    (getHeight() >> 1) - (float) (Math.sin(degree2Radian(30)) * radius));
-        }
-        mPath.close();
-        return mPath;
-    }
-
-    /**
-     * 绘制心形路径(此算法待深究，可以使用心形曲线方程)
-     *
-     * @return
-     */
-    private Path createHeartPath() {
-        mPath.reset();
+            rotation = PolygonGeometry.ROTATION_TOP;
+        }
+        int count = PolygonGeometry.writePolygon(6, width >> 1, height >> 1, radius, rotation, mVertices);
+        addPolygon(path, mVertices, count);
+    }
+
+    /**
+     * 顶点数组连接成闭合路径
+     *
+     * @param path     目标路径
+     * @param vertices 顶点(x0, y0, x1, y1, ...)
+     * @param count    有效float个数
+     */
+    private static void addPolygon(Path path, float[] vertices, int count) {
+        path.moveTo(vertices[0], vertices[1]);
+        for (int i = 2; i < count; i += 2) {
+            path.lineTo(vertices[i], vertices[i + 1]);
+        }
+        path.close();
+    }
+
+    /**
+     * 绘制心形路径：按心形曲线方程生成折线，分段数随尺寸变化(小头像少分段，大图多分段)
+     *
+     * @param path   目标路径
+     * @param width  宽度
+     * @param height 高度
+     */
+    private void createHeartPath(Path path, int width, int height) {
+        float left = shaderRingWidth / 2f;
+        float top = shaderRingWidth / 2f;
+        float heartWidth = width - shaderRingWidth;
+        float heartHeight = height - shaderRingWidth;
+        int segments = PolygonGeometry.heartSegmentCount(Math.min(heartWidth, heartHeight));
+        if (mHeartVertices == null || mHeartVertices.length < segments * 2) {
+            mHeartVertices = new float[segments * 2];
+        }
+        int count = PolygonGeometry.writeHeart(segments, left, top, heartWidth, heartHeight, mHeartVertices);
+        addPolygon(path, mHeartVertices, count);
+    }
+
+    /**
+     * 自定义形状路径：缓存的归一化命令(0~1)按view大小缩放，外边框内缩半个边框宽度
+     *
+     * @param path   目标路径
+     * @param width  宽度
+     * @param height 高度
+     */
+    private void createCustomPath(Path path, int width, int height) {
+        SvgPathData data = ShapePathCache.getPathData(customShapePath);
+        float left = shaderRingWidth / 2f;
+        float top = shaderRingWidth / 2f;
+        float scaleX = width - shaderRingWidth;
+        float scaleY = height - shaderRingWidth;
+        float[] points = data.getPoints();
+        int index = 0;
+        for (int i = 0; i < data.getVerbCount(); i++) {
+            byte verb = data.getVerb(i);
+            switch (verb) {
+                case SvgPathData.VERB_MOVE:
+                    path.moveTo(left + points[index] * scaleX, top + points[index + 1] * scaleY);
+                    break;
+                case SvgPathData.VERB_LINE:
+                    path.lineTo(left + points[index] * scaleX, top + points[index + 1] * scaleY);
+                    break;
+                case SvgPathData.VERB_QUAD:
+                    path.quadTo(left + points[index] * scaleX, top + points[index + 1] * scaleY,
+                            left + points[index + 2] * scaleX, top + points[index + 3] * scaleY);
+                    break;
+                case SvgPathData.VERB_CUBIC:
+                    path.cubicTo(left + points[index] * scaleX, top + points[index + 1] * scaleY,
+                            left + points[index + 2] * scaleX, top + points[index + 3] * scaleY,
+                            left + points[index + 4] * scaleX, top + points[index + 5] * scaleY);
+                    break;
+                case SvgPathData.VERB_CLOSE:
+                    path.close();
+                    break;
+            }
+            index += SvgPathData.pointCountOf(verb) * 2;
+        }
+    }
+
+    /**
+     * 获取当前形状路径，未准备好时立即计算
+     *
+     * @return 形状路径(只读)
+     */
+    private Path getShapePath() {
+        if (mShapePath == null) {
+            refreshShapePath();
+        }
+        return mShapePath;
+    }
+
+    /**
+     * 重新获取形状路径：相同(形状、顶点位置、宽、高、外边框宽度)的实例共享同一份缓存路径，
+     * 只在缓存未命中时计算
+     */
+    private void refreshShapePath() {
+        //遮罩、命中网格与路径同时失效，使用时再获取
+        mShapeMask = null;
+        mShapeHitGrid = null;
         int width = getWidth();
         int height = getHeight();
-        //心形凹点
-        mPath.moveTo(width / 2, height / 8 + shaderRingWidth / 2);
-        //左边心形曲线(由上向下)
-        mPath.cubicTo(-width / 8 + shaderRingWidth / 2, -height / 4 + shaderRingWidth / 2, -width / 5 + shaderRingWidth / 2, height / 2 + shaderRingWidth / 2, width / 2, height - shaderRingWidth / 2);
-        //右边心形曲线(由下向上)
-        mPath.cubicTo(width * 6 / 5 - shaderRingWidth / 2, height / 2 + shaderRingWidth / 2, width * 9 / 8 - shaderRingWidth / 2, -height / 4 + shaderRingWidth / 2, width / 2, height / 8 + shaderRingWidth / 2);
-        mPath.close();
-        return mPath;
+        if (width <= 0 || height <= 0) {
+            mShapePath = null;
+            return;
+        }
+        ShapePathCache.Key key = createShapeKey(width, height);
+        Path path = ShapePathCache.get(key);
+        if (path == null) {
+            path = buildShapePath(width, height);
+            ShapePathCache.put(key, path);
+        }
+        mShapePath = path;
+    }
+
+    /**
+     * 形状参数变化：重新获取形状路径并重绘(绘制过程中的延迟获取只调用refreshShapePath，不触发重绘)
+     */
+    private void updateShapePath() {
+        refreshShapePath();
+        invalidate();
+    }
+
+    //形状缓存键值，自定义形状包含路径数据
+    private ShapePathCache.Key createShapeKey(int width, int height) {
+        String pathData = typeValue == ShaderType.CUSTOM.getIntValue() ? customShapePath : null;
+        return new ShapePathCache.Key(typeValue, typeVertexValue, width, height, shaderRingWidth, pathData);
+    }
+
+    /**
+     * 计算形状路径
+     *
+     * @param width  宽度
+     * @param height 高度
+     * @return 新的路径(无需路径的形状返回空路径)
+     */
+    private Path buildShapePath(int width, int height) {
+        Path path = new Path();
+        if (typeValue == ShaderType.TRIANGLE.getIntValue()) {
+            createTrianglePath(path, width, height);
+        } else if (typeValue == ShaderType.FIVE_POINTED_STAR.getIntValue()
+                || typeValue == ShaderType.PENTAGON.getIntValue()) {
+            createFivePointedPath(path, width, height, width >> 1);
+        } else if (typeValue == ShaderType.HEXAGON.getIntValue()) {
+            createSixPointedPath(path, width, height, width >> 1);
+        } else if (typeValue == ShaderType.HEART.getIntValue()) {
+            createHeartPath(path, width, height);
+        } else if (typeValue == ShaderType.CUSTOM.getIntValue() && customShapePath != null) {
+            createCustomPath(path, width, height);
+        }
+        return path;
     }
 
     /**
@@ -699,50 +1232,172 @@ public class ShaderImageView extends ImageView {
     private void resetPaint() {
         mPaint.reset();
         mPaint.setAntiAlias(true);
+        //reset会清除位图过滤，shader按矩阵缩放原图时需要过滤
+        mPaint.setFilterBitmap(true);
         mPaint.setShader(mBitmapShader);
     }
 
+    /**
+     * 确保shader可用：<br/>
+     * 1、drawable或其bitmap内容变化时才重新生成shader(bitmap直接使用原图，不再复制缩放)； <br/>
+     * 2、view尺寸或ScaleType变化时只更新shader的变换矩阵。 <br/>
+     *
+     * @param drawable src图片
+     * @return shader是否可用
+     */
+    private boolean ensureShader(Drawable drawable) {
+        Bitmap source = drawable instanceof BitmapDrawable ? ((BitmapDrawable) drawable).getBitmap() : null;
+        int sourceGenerationId = source != null ? source.getGenerationId() : 0;
+        //无固有尺寸的drawable按view大小光栅化，view尺寸变化时需要重新光栅化
+        boolean rasterBySize = source == null
+                && (drawable.getIntrinsicWidth() <= 0 || drawable.getIntrinsicHeight() <= 0);
+        boolean sizeChanged = getWidth() != mCachedWidth || getHeight() != mCachedHeight;
+        if (mBitmapShader == null
+                || drawable != mCachedDrawable
+                || source != mCachedSourceBitmap
+                || sourceGenerationId != mCachedSourceGenerationId
+                || (rasterBySize && sizeChanged)) {
+            releaseShaderCache();
+            Bitmap bitmap = drawableToBitamp(drawable);
+            if (bitmap == null) {
+                return false;
+            }
+            //将bitmap作为着色器，就是在指定区域内绘制bitmap
+            mShaderBitmap = bitmap;
+            mShaderBitmapPooled = source == null;
+            mBitmapShader = new BitmapShader(bitmap, Shader.TileMode.CLAMP, Shader.TileMode.CLAMP);
+            mShaderAllocationCount++;
+            mCachedDrawable = drawable;
+            mCachedSourceBitmap = source;
+            mCachedSourceGenerationId = sourceGenerationId;
+            //强制更新变换矩阵
+            mCachedScaleType = null;
+        }
+        if (sizeChanged || getScaleType() != mCachedScaleType) {
+            updateShaderMatrix(mShaderBitmap.getWidth(), mShaderBitmap.getHeight());
+            mCachedWidth = getWidth();
+            mCachedHeight = getHeight();
+            mCachedScaleType = getScaleType();
+        }
+        return true;
+    }
+
+    /**
+     * 丢弃shader缓存，光栅化的bitmap放回BitmapPool，下次绘制时重新生成
+     */
+    private void releaseShaderCache() {
+        if (mShaderBitmapPooled) {
+            BitmapPool.getInstance().put(mShaderBitmap);
+        }
+        mShaderBitmap = null;
+        mShaderBitmapPooled = false;
+        mBitmapShader = null;
+        mCachedDrawable = null;
+        mCachedSourceBitmap = null;
+    }
+
+    /**
+     * 根据ScaleType设置shader的变换矩阵，由shader在绘制时完成缩放，不生成中间bitmap <br/>
+     * 1、CENTER_CROP：等比缩放铺满view，居中裁剪； <br/>
+     * 2、FIT_CENTER：等比缩放完整显示，居中； <br/>
+     * 3、CENTER_INSIDE：同FIT_CENTER，但不放大； <br/>
+     * 4、其他：等比缩放铺满view，左上角对齐(旧版效果)。 <br/>
+     *
+     * @param bitmapWidth  bitmap宽度
+     * @param bitmapHeight bitmap高度
+     */
+    private void updateShaderMatrix(int bitmapWidth, int bitmapHeight) {
+        int viewWidth = getWidth();
+        int viewHeight = getHeight();
+        float scaleWidth = ((float) viewWidth) / bitmapWidth;
+        float scaleHeight = ((float) viewHeight) / bitmapHeight;
+        ScaleType scaleType = getScaleType();
+        float scale;
+        boolean center = true;
+        if (scaleType == ScaleType.FIT_CENTER) {
+            scale = Math.min(scaleWidth, scaleHeight);
+        } else if (scaleType == ScaleType.CENTER_INSIDE) {
+            scale = Math.min(1.0f, Math.min(scaleWidth, scaleHeight));
+        } else {
+            //为了是图片不变形，应使用最大的缩放比例，宽高等比缩放
+            scale = Math.max(scaleWidth, scaleHeight);
+            center = scaleType == ScaleType.CENTER_CROP;
+        }
+        float dx = center ? (viewWidth - bitmapWidth * scale) * 0.5f : 0;
+        float dy = center ? (viewHeight - bitmapHeight * scale) * 0.5f : 0;
+        mShaderMatrix.setScale(scale, scale);
+        mShaderMatrix.postTranslate(Math.round(dx), Math.round(dy));
+        mBitmapShader.setLocalMatrix(mShaderMatrix);
+        //图片未铺满view时(适应模式)，填充需裁剪到图片区域，防止CLAMP拉伸边缘像素
+        mImageRect.set(Math.round(dx), Math.round(dy),
+                Math.round(dx) + bitmapWidth * scale, Math.round(dy) + bitmapHeight * scale);
+        mClipFillToImage = mImageRect.left > 0 || mImageRect.top > 0
+                || mImageRect.right < viewWidth || mImageRect.bottom < viewHeight;
+    }
+
+    /**
+     * drawable转bitmap：BitmapDrawable直接使用原图；
+     * 其他drawable按固有尺寸光栅化一次(无固有尺寸时按view大小)，不透明时使用RGB_565
+     *
+     * @param drawable src图片
+     * @return bitmap
+     */
     private Bitmap drawableToBitamp(Drawable drawable) {
         if (drawable instanceof BitmapDrawable) {
             BitmapDrawable bitmapDrawable = (BitmapDrawable) drawable;
-            return resizeImage(bitmapDrawable.getBitmap());
+            return bitmapDrawable.getBitmap();
         }
         int w = drawable.getIntrinsicWidth();
         int h = drawable.getIntrinsicHeight();
-        if (w != getWidth() || h != getHeight()) {
-            float scaleWidth = getWidth() * 1.0f / w;
-            float scaleHeight = getHeight() * 1.0f / h;
-            //计算当前drawable的宽高与当前view的宽高比例，调整drawable的大小
-            float maxScale = Math.max(scaleWidth, scaleHeight);
-            drawable.setBounds(0, 0, (int) (maxScale * w), (int) (maxScale * h));
-        }
-        Bitmap bitmap = Bitmap.createBitmap(getWidth(), getHeight(), Bitmap.Config.ARGB_8888);
+        if (w <= 0 || h <= 0) {
+            w = getWidth();
+            h = getHeight();
+        }
+        if (w <= 0 || h <= 0) {
+            return null;
+        }
+        Bitmap.Config config = mBitmapConfig;
+        if (config == null) {
+            //不透明的drawable不需要透明通道
+            config = drawable.getOpacity() == PixelFormat.OPAQUE ? Bitmap.Config.RGB_565 : Bitmap.Config.ARGB_8888;
+        }
+        Bitmap bitmap = BitmapPool.getInstance().getReusable(w, h, config);
+        if (bitmap == null) {
+            //只统计真正新建的bitmap，从池中复用的不计
+            bitmap = Bitmap.createBitmap(w, h, config);
+            mBitmapAllocationCount++;
+        }
         Canvas canvas = new Canvas(bitmap);
+        //临时修改边界进行绘制，完成后恢复，不影响ImageView自身的布局
+        mTempBounds.set(drawable.getBounds());
+        drawable.setBounds(0, 0, w, h);
         drawable.draw(canvas);
+        drawable.setBounds(mTempBounds);
         return bitmap;
     }
 
     /**
-     * 等比缩放图片，原图不变形
+     * 开始填充绘制，图片未铺满view时裁剪到图片区域
      *
-     * @param bitmap 原图bitmap
-     * @return 等比缩放到view大小后的bitmap
+     * @param canvas 画布
+     * @return 画布保存的层级
      */
-    private Bitmap resizeImage(Bitmap bitmap) {
-        int w = bitmap.getWidth();
-        int h = bitmap.getHeight();
-        if (w == getWidth() && h == getHeight()) {
-            return bitmap;
+    private int beginFill(Canvas canvas) {
+        int saveCount = canvas.save();
+        if (mClipFillToImage) {
+            canvas.clipRect(mImageRect);
         }
-        //计算出缩放比例
-        float scaleWidth = ((float) getWidth()) / w;
-        float scaleHeight = ((float) getHeight()) / h;
-        //创建变换矩阵
-        Matrix matrix = new Matrix();
-        //设置缩放参数(为了是图片不变形，应使用最大的缩放比例，宽高等比缩放)
-        float maxScale = Math.max(scaleWidth, scaleHeight);
-        matrix.postScale(maxScale, maxScale);
-        return Bitmap.createBitmap(bitmap, 0, 0, w, h, matrix, true);
+        return saveCount;
+    }
+
+    /**
+     * 结束填充绘制，恢复画布
+     *
+     * @param canvas    画布
+     * @param saveCount beginFill返回的层级
+     */
+    private void endFill(Canvas canvas, int saveCount) {
+        canvas.restoreToCount(saveCount);
     }
 
     /**
@@ -765,13 +1420,6 @@ public class ShaderImageView extends ImageView {
         return (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, dpVal, getResources().getDisplayMetrics());
     }
 
-    //角度2弧度
-    private float degree2Radian(int degree) {
-        //Math.toRadians(degree);//角度2弧度
-        //Math.toDegrees(angrad);//弧度2角度
-        return (float) (Math.PI * degree / 180);
-    }
-
     /**
      * 形状枚举
      */
@@ -783,7 +1431,8 @@ public class ShaderImageView extends ImageView {
         PENTAGON(5),          //五边形
         HEXAGON(6),           //六边形
         HEART(7),             //心形
-        CIRCULAR(8);          //圆形
+        CIRCULAR(8),          //圆形
+        CUSTOM(9);            //自定义(SVG路径数据)
 
         ShaderType(int intValue) {
             this.intValue = intValue;
@@ -796,6 +1445,24 @@ public class ShaderImageView extends ImageView {
         }
     }
 
+    /**
+     * 形状填充方式枚举
+     */
+    public enum ShapeRenderMode {
+        PATH(1),          //路径填充
+        MASK(2);          //ALPHA_8遮罩
+
+        ShapeRenderMode(int intValue) {
+            this.intValue = intValue;
+        }
+
+        private int intValue;
+
+        public int getIntValue() {
+            return intValue;
+        }
+    }
+
     /**
      * 五边形、五边形、三角形顶点位置枚举
      */
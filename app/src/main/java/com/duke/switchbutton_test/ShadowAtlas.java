@@ -0,0 +1,142 @@
+package com.duke.switchbutton_test;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.RadialGradient;
+import android.graphics.Shader;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Shared pre-rendered thumb shadows for {@link SwitchView}.
+ * <p>
+ * One sprite is rendered per (radius, density, shadow color) and shared by every switch
+ * using it. Sprites are reference counted; once nobody holds a sprite it moves to a small
+ * LRU of idle sprites and is dropped when that LRU overflows. Call from the UI thread.
+ */
+final class ShadowAtlas {
+    private static final int MAX_IDLE_ENTRIES = 4;
+
+    private static final Map<Key, Entry> sActive = new HashMap<>();
+    private static final LinkedHashMap<Key, Entry> sIdle = new LinkedHashMap<>(8, 0.75f, true);
+
+    private ShadowAtlas() {
+    }
+
+    /**
+     * Returns the shared shadow sprite for the given parameters, rendering it on first use.
+     * Each call must be balanced by {@link #release(Entry)}.
+     */
+    static Entry acquire(float radius, int densityDpi, int shadowColor) {
+        Key key = new Key(radius, densityDpi, shadowColor);
+        Entry entry = sActive.get(key);
+        if (entry == null) {
+            entry = sIdle.remove(key);
+            if (entry == null) {
+                entry = new Entry(key, render(radius, shadowColor));
+            }
+            sActive.put(key, entry);
+        }
+        entry.refCount++;
+        return entry;
+    }
+
+    static void release(Entry entry) {
+        if (entry == null || entry.refCount == 0) return;
+        if (--entry.refCount == 0) {
+            sActive.remove(entry.key);
+            sIdle.put(entry.key, entry);
+            trimIdle(MAX_IDLE_ENTRIES);
+        }
+    }
+
+    /**
+     * Drops idle sprites until at most {@code maxIdle} remain, least recently used first.
+     */
+    static void trimIdle(int maxIdle) {
+        Iterator<Entry> it = sIdle.values().iterator();
+        while (sIdle.size() > maxIdle && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    static int activeCount() {
+        return sActive.size();
+    }
+
+    static int idleCount() {
+        return sIdle.size();
+    }
+
+    /**
+     * Bytes held by active and idle sprites, for debug dumps.
+     */
+    static int byteCount() {
+        int bytes = 0;
+        for (Entry entry : sActive.values()) {
+            bytes += entry.bitmap.getRowBytes() * entry.bitmap.getHeight();
+        }
+        for (Entry entry : sIdle.values()) {
+            bytes += entry.bitmap.getRowBytes() * entry.bitmap.getHeight();
+        }
+        return bytes;
+    }
+
+    private static Bitmap render(float radius, int shadowColor) {
+        int size = (int) Math.ceil(radius * 2) + 2;
+        Bitmap sprite = Bitmap.createBitmap(size, size, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(sprite);
+        float center = size / 2f;
+        Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        paint.setShader(new RadialGradient(center, center, radius,
+                shadowColor, shadowColor & 0x00FFFFFF, Shader.TileMode.CLAMP));
+        canvas.drawCircle(center, center, radius, paint);
+        return sprite;
+    }
+
+    static final class Entry {
+        final Key key;
+        final Bitmap bitmap;
+        int refCount;
+
+        Entry(Key key, Bitmap bitmap) {
+            this.key = key;
+            this.bitmap = bitmap;
+        }
+    }
+
+    static final class Key {
+        final int radiusBits;
+        final int densityDpi;
+        final int shadowColor;
+
+        Key(float radius, int densityDpi, int shadowColor) {
+            this.radiusBits = Float.floatToIntBits(radius);
+            this.densityDpi = densityDpi;
+            this.shadowColor = shadowColor;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return radiusBits == key.radiusBits
+                    && densityDpi == key.densityDpi
+                    && shadowColor == key.shadowColor;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = radiusBits;
+            result = 31 * result + densityDpi;
+            result = 31 * result + shadowColor;
+            return result;
+        }
+    }
+}
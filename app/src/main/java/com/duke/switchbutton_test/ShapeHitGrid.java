@@ -0,0 +1,104 @@
+package com.duke.switchbutton_test;
+
+/**
+ * @Author: zhangsheng
+ * @DateTime: 2026-10-16 19:50
+ * @Description: 形状命中测试的粗粒度占用网格(纯java，不依赖android) <br/>
+ * <p>
+ * 把view区域划分为cols * rows个格子，形状覆盖(含抗锯齿边缘)的格子记为命中，按位保存； <br/>
+ * 每次查询只做一次坐标换算和位运算，与形状复杂度无关。 <br/>
+ */
+public final class ShapeHitGrid {
+    private final int mColumnCount;
+    private final int mRowCount;
+    private final float mWidth;
+    private final float mHeight;
+    private final float mColumnScale;
+    private final float mRowScale;
+    private final long[] mBits;
+
+    /**
+     * @param columnCount 列数
+     * @param rowCount    行数
+     * @param width       覆盖的宽度px
+     * @param height      覆盖的高度px
+     */
+    public ShapeHitGrid(int columnCount, int rowCount, float width, float height) {
+        if (columnCount <= 0 || rowCount <= 0) {
+            throw new IllegalArgumentException("grid must not be empty: " + columnCount + "x" + rowCount);
+        }
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("size must be positive: " + width + "x" + height);
+        }
+        mColumnCount = columnCount;
+        mRowCount = rowCount;
+        mWidth = width;
+        mHeight = height;
+        mColumnScale = columnCount / width;
+        mRowScale = rowCount / height;
+        mBits = new long[(columnCount * rowCount + 63) >>> 6];
+    }
+
+    /**
+     * 由光栅化的透明度数据生成网格，透明度大于0的格子记为命中
+     *
+     * @param alpha       每个格子的透明度(ALPHA_8像素)
+     * @param rowBytes    每行字节数(可能大于列数)
+     * @param columnCount 列数
+     * @param rowCount    行数
+     * @param width       覆盖的宽度px
+     * @param height      覆盖的高度px
+     * @return 网格
+     */
+    public static ShapeHitGrid fromAlpha(byte[] alpha, int rowBytes, int columnCount, int rowCount,
+                                         float width, float height) {
+        if (alpha == null || rowBytes < columnCount || alpha.length < rowBytes * (rowCount - 1) + columnCount) {
+            throw new IllegalArgumentException("alpha buffer too small");
+        }
+        ShapeHitGrid grid = new ShapeHitGrid(columnCount, rowCount, width, height);
+        for (int row = 0; row < rowCount; row++) {
+            for (int column = 0; column < columnCount; column++) {
+                if (alpha[row * rowBytes + column] != 0) {
+                    grid.set(column, row);
+                }
+            }
+        }
+        return grid;
+    }
+
+    /**
+     * 标记格子为命中
+     *
+     * @param column 列
+     * @param row    行
+     */
+    public void set(int column, int row) {
+        int index = row * mColumnCount + column;
+        mBits[index >>> 6] |= 1L << index;
+    }
+
+    /**
+     * 坐标是否落在形状内
+     *
+     * @param x view坐标x
+     * @param y view坐标y
+     * @return 是否命中
+     */
+    public boolean contains(float x, float y) {
+        if (!(x >= 0 && y >= 0 && x < mWidth && y < mHeight)) {
+            return false;
+        }
+        int column = Math.min((int) (x * mColumnScale), mColumnCount - 1);
+        int row = Math.min((int) (y * mRowScale), mRowCount - 1);
+        int index = row * mColumnCount + column;
+        return (mBits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    public int getColumnCount() {
+        return mColumnCount;
+    }
+
+    public int getRowCount() {
+        return mRowCount;
+    }
+}
@@ -0,0 +1,77 @@
+package com.duke.switchbutton_test;
+
+import android.graphics.Bitmap;
+import android.os.Build;
+import android.util.LruCache;
+
+/**
+ * @Author: zhangsheng
+ * @DateTime: 2026-10-16 19:10
+ * @Description: ShaderImageView形状遮罩缓存 <br/>
+ * <p>
+ * 按(形状类型、顶点位置、宽、高、外边框宽度、自定义路径数据)缓存光栅化好的ALPHA_8遮罩， <br/>
+ * 与ShapePathCache使用同一个键(ShaderImageView.createShapeKey)，所有实例共享，总大小按字节数限制； <br/>
+ * 缓存中的遮罩只读，使用者不能修改。 <br/>
+ */
+final class ShapeMaskCache {
+    //默认缓存上限：最大可用内存的1/64
+    private static final int MAX_SIZE_DEFAULT = (int) Math.min(Integer.MAX_VALUE, Runtime.getRuntime().maxMemory() / 64);
+
+    private static final LruCache<ShapePathCache.Key, Bitmap> sCache = new LruCache<ShapePathCache.Key, Bitmap>(MAX_SIZE_DEFAULT) {
+        @Override
+        protected int sizeOf(ShapePathCache.Key key, Bitmap value) {
+            return value.getRowBytes() * value.getHeight();
+        }
+    };
+
+    private ShapeMaskCache() {
+    }
+
+    /**
+     * 获取缓存的遮罩
+     *
+     * @param key 形状键值
+     * @return 遮罩，未缓存返回null
+     */
+    static Bitmap get(ShapePathCache.Key key) {
+        return sCache.get(key);
+    }
+
+    /**
+     * 缓存遮罩
+     *
+     * @param key  形状键值
+     * @param mask ALPHA_8遮罩(放入后不能再修改)
+     */
+    static void put(ShapePathCache.Key key, Bitmap mask) {
+        sCache.put(key, mask);
+    }
+
+    /**
+     * 淘汰最久未使用的遮罩，直到总大小不超过maxSize(API 17以下直接清空)
+     *
+     * @param maxSize 字节数
+     */
+    static void trimToSize(int maxSize) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR1) {
+            sCache.trimToSize(maxSize);
+        } else if (sCache.size() > maxSize) {
+            sCache.evictAll();
+        }
+    }
+
+    //清空缓存
+    static void evictAll() {
+        sCache.evictAll();
+    }
+
+    //当前占用字节数
+    static int size() {
+        return sCache.size();
+    }
+
+    //缓存上限字节数
+    static int maxSize() {
+        return sCache.maxSize();
+    }
+}
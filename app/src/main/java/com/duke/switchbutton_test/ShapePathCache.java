@@ -0,0 +1,159 @@
+package com.duke.switchbutton_test;
+
+import android.graphics.Path;
+import android.os.Build;
+import android.util.LruCache;
+
+/**
+ * @Author: zhangsheng
+ * @DateTime: 2026-10-16 11:05
+ * @Description: ShaderImageView形状路径缓存 <br/>
+ * <p>
+ * 按(形状类型、顶点位置、宽、高、外边框宽度、自定义路径数据)缓存计算好的Path及其命中测试网格，所有实例共享； <br/>
+ * 自定义形状的SVG路径数据按字符串缓存解析结果，不同尺寸只做缩放不再重复解析； <br/>
+ * 缓存中的Path、网格、解析结果只读，使用者不能修改。 <br/>
+ */
+final class ShapePathCache {
+    //最多缓存的路径数量
+    private static final int MAX_ENTRIES = 64;
+
+    private static final LruCache<Key, Path> sCache = new LruCache<>(MAX_ENTRIES);
+    private static final LruCache<Key, ShapeHitGrid> sHitGrids = new LruCache<>(MAX_ENTRIES);
+    private static final LruCache<String, SvgPathData> sPathData = new LruCache<>(MAX_ENTRIES);
+
+    private ShapePathCache() {
+    }
+
+    /**
+     * 获取缓存的路径
+     *
+     * @param key 路径键值
+     * @return 路径，未缓存返回null
+     */
+    static Path get(Key key) {
+        return sCache.get(key);
+    }
+
+    /**
+     * 缓存路径
+     *
+     * @param key  路径键值
+     * @param path 路径(放入后不能再修改)
+     */
+    static void put(Key key, Path path) {
+        sCache.put(key, path);
+    }
+
+    /**
+     * 获取缓存的命中测试网格
+     *
+     * @param key 路径键值
+     * @return 网格，未缓存返回null
+     */
+    static ShapeHitGrid getHitGrid(Key key) {
+        return sHitGrids.get(key);
+    }
+
+    /**
+     * 缓存命中测试网格
+     *
+     * @param key  路径键值
+     * @param grid 网格(放入后不能再修改)
+     */
+    static void putHitGrid(Key key, ShapeHitGrid grid) {
+        sHitGrids.put(key, grid);
+    }
+
+    /**
+     * 获取SVG路径数据的解析结果，未缓存时解析并缓存
+     *
+     * @param pathData SVG路径数据
+     * @return 解析结果
+     * @throws IllegalArgumentException 格式错误
+     */
+    static SvgPathData getPathData(String pathData) {
+        SvgPathData data = sPathData.get(pathData);
+        if (data == null) {
+            data = SvgPathData.parse(pathData);
+            sPathData.put(pathData, data);
+        }
+        return data;
+    }
+
+    /**
+     * 淘汰最久未使用的路径，直到数量不超过maxSize(API 17以下直接清空)
+     *
+     * @param maxSize 路径数量
+     */
+    static void trimToSize(int maxSize) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR1) {
+            sCache.trimToSize(maxSize);
+            sHitGrids.trimToSize(maxSize);
+            sPathData.trimToSize(maxSize);
+        } else if (sCache.size() > maxSize) {
+            evictAll();
+        }
+    }
+
+    //清空缓存
+    static void evictAll() {
+        sCache.evictAll();
+        sHitGrids.evictAll();
+        sPathData.evictAll();
+    }
+
+    //当前缓存的路径数量
+    static int size() {
+        return sCache.size();
+    }
+
+    /**
+     * 路径键值
+     */
+    static final class Key {
+        final int typeValue;
+        final int typeVertexValue;
+        final int width;
+        final int height;
+        final int shaderRingWidth;
+        //自定义形状的SVG路径数据，其他形状为null
+        final String pathData;
+
+        Key(int typeValue, int typeVertexValue, int width, int height, int shaderRingWidth) {
+            this(typeValue, typeVertexValue, width, height, shaderRingWidth, null);
+        }
+
+        Key(int typeValue, int typeVertexValue, int width, int height, int shaderRingWidth, String pathData) {
+            this.typeValue = typeValue;
+            this.typeVertexValue = typeVertexValue;
+            this.width = width;
+            this.height = height;
+            this.shaderRingWidth = shaderRingWidth;
+            this.pathData = pathData;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return typeValue == key.typeValue
+                    && typeVertexValue == key.typeVertexValue
+                    && width == key.width
+                    && height == key.height
+                    && shaderRingWidth == key.shaderRingWidth
+                    && (pathData == null ? key.pathData == null : pathData.equals(key.pathData));
+        }
+
+        @Override
+        public int hashCode() {
+            int result = typeValue;
+            result = 31 * result + typeVertexValue;
+            result = 31 * result + width;
+            result = 31 * result + height;
+            result = 31 * result + shaderRingWidth;
+            result = 31 * result + (pathData != null ? pathData.hashCode() : 0);
+            return result;
+        }
+    }
+}
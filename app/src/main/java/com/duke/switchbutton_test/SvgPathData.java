@@ -0,0 +1,465 @@
+package com.duke.switchbutton_test;
+
+import java.util.Arrays;
+
+/**
+ * @Author: zhangsheng
+ * @DateTime: 2026-10-16 20:30
+ * @Description: SVG路径数据(path的d属性)解析结果(纯java，不依赖android) <br/>
+ * <p>
+ * 解析一次后转为只含MOVE、LINE、QUAD、CUBIC、CLOSE的绝对坐标命令，圆弧转换为三次贝塞尔曲线； <br/>
+ * 坐标按路径的实际外接矩形归一化到0~1，与绘制尺寸无关，绘制时只需按宽高缩放。 <br/>
+ */
+public final class SvgPathData {
+    public static final byte VERB_MOVE = 0;   //1个点
+    public static final byte VERB_LINE = 1;   //1个点
+    public static final byte VERB_QUAD = 2;   //2个点(控制点、终点)
+    public static final byte VERB_CUBIC = 3;  //3个点(两个控制点、终点)
+    public static final byte VERB_CLOSE = 4;  //无点
+
+    private final byte[] mVerbs;
+    private final float[] mPoints;
+    private final float mAspectRatio;
+
+    private SvgPathData(byte[] verbs, float[] points, float aspectRatio) {
+        mVerbs = verbs;
+        mPoints = points;
+        mAspectRatio = aspectRatio;
+    }
+
+    /**
+     * 解析SVG路径数据
+     *
+     * @param pathData 如"M0,0 L10,0 L5,8 Z"，支持M L H V C S Q T A Z及对应小写相对命令
+     * @return 归一化的命令列表
+     * @throws IllegalArgumentException 格式错误或路径没有面积
+     */
+    public static SvgPathData parse(String pathData) {
+        if (pathData == null) {
+            throw new IllegalArgumentException("empty path data");
+        }
+        Parser parser = new Parser(pathData);
+        parser.parse();
+        return parser.normalize();
+    }
+
+    //命令数量
+    public int getVerbCount() {
+        return mVerbs.length;
+    }
+
+    public byte getVerb(int index) {
+        return mVerbs[index];
+    }
+
+    /**
+     * 所有命令的点坐标(x0, y0, x1, y1, ...)，按命令顺序排列，取值0~1，只读
+     *
+     * @return 坐标数组
+     */
+    public float[] getPoints() {
+        return mPoints;
+    }
+
+    //原始外接矩形的宽高比
+    public float getAspectRatio() {
+        return mAspectRatio;
+    }
+
+    //命令对应的点数
+    public static int pointCountOf(byte verb) {
+        switch (verb) {
+            case VERB_MOVE:
+            case VERB_LINE:
+                return 1;
+            case VERB_QUAD:
+                return 2;
+            case VERB_CUBIC:
+                return 3;
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * 路径数据解析器：输出绝对坐标命令，并计算曲线的实际外接矩形
+     */
+    private static final class Parser {
+        private final String mData;
+        private int mIndex;
+        private byte[] mVerbs = new byte[16];
+        private int mVerbCount;
+        private float[] mPoints = new float[64];
+        private int mPointCount;
+        //当前点、子路径起点、上一条曲线的控制点(用于S、T的反射)
+        private float mCurrentX, mCurrentY;
+        private float mStartX, mStartY;
+        private float mControlX, mControlY;
+        private char mLastCommand;
+        //外接矩形
+        private float mMinX = Float.POSITIVE_INFINITY, mMinY = Float.POSITIVE_INFINITY;
+        private float mMaxX = Float.NEGATIVE_INFINITY, mMaxY = Float.NEGATIVE_INFINITY;
+
+        Parser(String data) {
+            mData = data;
+        }
+
+        void parse() {
+            skipSeparators();
+            char command = 0;
+            while (mIndex < mData.length()) {
+                char c = mData.charAt(mIndex);
+                if (isCommand(c)) {
+                    command = c;
+                    mIndex++;
+                } else if (command == 0) {
+                    throw error("path must start with a command");
+                } else if (command == 'M' || command == 'm') {
+                    //moveTo之后的坐标对按lineTo处理
+                    command = command == 'M' ? 'L' : 'l';
+                } else if (command == 'Z' || command == 'z') {
+                    throw error("unexpected number after close");
+                }
+                if (mVerbCount == 0 && command != 'M' && command != 'm') {
+                    throw error("path must start with a moveto");
+                }
+                execute(command);
+                mLastCommand = command;
+                skipSeparators();
+            }
+            if (mVerbCount == 0) {
+                throw new IllegalArgumentException("empty path data");
+            }
+        }
+
+        private void execute(char command) {
+            boolean relative = Character.isLowerCase(command);
+            float baseX = relative ? mCurrentX : 0;
+            float baseY = relative ? mCurrentY : 0;
+            switch (Character.toUpperCase(command)) {
+                case 'M': {
+                    float x = baseX + readNumber();
+                    float y = baseY + readNumber();
+                    addVerb(VERB_MOVE);
+                    addEndPoint(x, y);
+                    mStartX = x;
+                    mStartY = y;
+                    setCurrent(x, y);
+                    break;
+                }
+                case 'L':
+                    lineTo(baseX + readNumber(), baseY + readNumber());
+                    break;
+                case 'H':
+                    lineTo(baseX + readNumber(), mCurrentY);
+                    break;
+                case 'V':
+                    lineTo(mCurrentX, baseY + readNumber());
+                    break;
+                case 'C': {
+                    float x1 = baseX + readNumber(), y1 = baseY + readNumber();
+                    float x2 = baseX + readNumber(), y2 = baseY + readNumber();
+                    cubicTo(x1, y1, x2, y2, baseX + readNumber(), baseY + readNumber());
+                    break;
+                }
+                case 'S': {
+                    boolean reflect = "CcSs".indexOf(mLastCommand) >= 0;
+                    float x1 = reflect ? 2 * mCurrentX - mControlX : mCurrentX;
+                    float y1 = reflect ? 2 * mCurrentY - mControlY : mCurrentY;
+                    float x2 = baseX + readNumber(), y2 = baseY + readNumber();
+                    cubicTo(x1, y1, x2, y2, baseX + readNumber(), baseY + readNumber());
+                    break;
+                }
+                case 'Q': {
+                    float x1 = baseX + readNumber(), y1 = baseY + readNumber();
+                    quadTo(x1, y1, baseX + readNumber(), baseY + readNumber());
+                    break;
+                }
+                case 'T': {
+                    boolean reflect = "QqTt".indexOf(mLastCommand) >= 0;
+                    float x1 = reflect ? 2 * mCurrentX - mControlX : mCurrentX;
+                    float y1 = reflect ? 2 * mCurrentY - mControlY : mCurrentY;
+                    quadTo(x1, y1, baseX + readNumber(), baseY + readNumber());
+                    break;
+                }
+                case 'A': {
+                    float rx = readNumber(), ry = readNumber(), rotation = readNumber();
+                    boolean largeArc = readFlag(), sweep = readFlag();
+                    arcTo(rx, ry, rotation, largeArc, sweep, baseX + readNumber(), baseY + readNumber());
+                    break;
+                }
+                case 'Z':
+                    addVerb(VERB_CLOSE);
+                    setCurrent(mStartX, mStartY);
+                    break;
+                default:
+                    throw error("unsupported command '" + command + "'");
+            }
+        }
+
+        private void lineTo(float x, float y) {
+            addVerb(VERB_LINE);
+            addEndPoint(x, y);
+            setCurrent(x, y);
+        }
+
+        private void quadTo(float x1, float y1, float x, float y) {
+            addVerb(VERB_QUAD);
+            addPoint(x1, y1);
+            addEndPoint(x, y);
+            includeQuadExtrema(mCurrentX, x1, x, true);
+            includeQuadExtrema(mCurrentY, y1, y, false);
+            mCurrentX = x;
+            mCurrentY = y;
+            mControlX = x1;
+            mControlY = y1;
+        }
+
+        private void cubicTo(float x1, float y1, float x2, float y2, float x, float y) {
+            addVerb(VERB_CUBIC);
+            addPoint(x1, y1);
+            addPoint(x2, y2);
+            addEndPoint(x, y);
+            includeCubicExtrema(mCurrentX, x1, x2, x, true);
+            includeCubicExtrema(mCurrentY, y1, y2, y, false);
+            mCurrentX = x;
+            mCurrentY = y;
+            mControlX = x2;
+            mControlY = y2;
+        }
+
+        /**
+         * 圆弧转换为三次贝塞尔曲线(SVG规范F.6.5的端点参数转中心参数，每段不超过90度)
+         */
+        private void arcTo(float rx, float ry, float rotationDegrees, boolean largeArc, boolean sweep, float x, float y) {
+            float x0 = mCurrentX, y0 = mCurrentY;
+            if (x0 == x && y0 == y) {
+                return;
+            }
+            rx = Math.abs(rx);
+            ry = Math.abs(ry);
+            if (rx == 0 || ry == 0) {
+                lineTo(x, y);
+                return;
+            }
+            double phi = Math.toRadians(rotationDegrees);
+            double cos = Math.cos(phi), sin = Math.sin(phi);
+            double dx = (x0 - x) / 2.0, dy = (y0 - y) / 2.0;
+            double x1p = cos * dx + sin * dy;
+            double y1p = -sin * dx + cos * dy;
+            //半径不足时等比放大
+            double lambda = (x1p * x1p) / (rx * rx) + (y1p * y1p) / (ry * ry);
+            double rxd = rx, ryd = ry;
+            if (lambda > 1) {
+                double scale = Math.sqrt(lambda);
+                rxd *= scale;
+                ryd *= scale;
+            }
+            double numerator = rxd * rxd * ryd * ryd - rxd * rxd * y1p * y1p - ryd * ryd * x1p * x1p;
+            double denominator = rxd * rxd * y1p * y1p + ryd * ryd * x1p * x1p;
+            double coefficient = Math.sqrt(Math.max(0, numerator / denominator));
+            if (largeArc == sweep) {
+                coefficient = -coefficient;
+            }
+            double cxp = coefficient * rxd * y1p / ryd;
+            double cyp = -coefficient * ryd * x1p / rxd;
+            double cx = cos * cxp - sin * cyp + (x0 + x) / 2.0;
+            double cy = sin * cxp + cos * cyp + (y0 + y) / 2.0;
+            double startAngle = Math.atan2((y1p - cyp) / ryd, (x1p - cxp) / rxd);
+            double endAngle = Math.atan2((-y1p - cyp) / ryd, (-x1p - cxp) / rxd);
+            double sweepAngle = endAngle - startAngle;
+            if (sweep && sweepAngle < 0) {
+                sweepAngle += 2 * Math.PI;
+            } else if (!sweep && sweepAngle > 0) {
+                sweepAngle -= 2 * Math.PI;
+            }
+            int segments = (int) Math.ceil(Math.abs(sweepAngle) / (Math.PI / 2) - 1e-6);
+            double step = sweepAngle / segments;
+            double k = 4.0 / 3.0 * Math.tan(step / 4);
+            double angle = startAngle;
+            for (int i = 0; i < segments; i++) {
+                double cos1 = Math.cos(angle), sin1 = Math.sin(angle);
+                double cos2 = Math.cos(angle + step), sin2 = Math.sin(angle + step);
+                //单位圆上的控制点，再按半径、旋转、中心变换
+                double e1x = cos1 - k * sin1, e1y = sin1 + k * cos1;
+                double e2x = cos2 + k * sin2, e2y = sin2 - k * cos2;
+                float endX = i == segments - 1 ? x : (float) (cx + cos * rxd * cos2 - sin * ryd * sin2);
+                float endY = i == segments - 1 ? y : (float) (cy + sin * rxd * cos2 + cos * ryd * sin2);
+                cubicTo((float) (cx + cos * rxd * e1x - sin * ryd * e1y), (float) (cy + sin * rxd * e1x + cos * ryd * e1y),
+                        (float) (cx + cos * rxd * e2x - sin * ryd * e2y), (float) (cy + sin * rxd * e2x + cos * ryd * e2y),
+                        endX, endY);
+                angle += step;
+            }
+        }
+
+        private void setCurrent(float x, float y) {
+            mCurrentX = x;
+            mCurrentY = y;
+            mControlX = x;
+            mControlY = y;
+        }
+
+        private void addVerb(byte verb) {
+            if (mVerbCount == mVerbs.length) {
+                mVerbs = Arrays.copyOf(mVerbs, mVerbCount * 2);
+            }
+            mVerbs[mVerbCount++] = verb;
+        }
+
+        private void addPoint(float x, float y) {
+            if (mPointCount + 2 > mPoints.length) {
+                mPoints = Arrays.copyOf(mPoints, mPoints.length * 2);
+            }
+            mPoints[mPointCount++] = x;
+            mPoints[mPointCount++] = y;
+        }
+
+        //曲线经过的点(起点、终点)计入外接矩形，控制点只保存不计入
+        private void addEndPoint(float x, float y) {
+            addPoint(x, y);
+            include(x, y);
+        }
+
+        private void include(float x, float y) {
+            mMinX = Math.min(mMinX, x);
+            mMaxX = Math.max(mMaxX, x);
+            mMinY = Math.min(mMinY, y);
+            mMaxY = Math.max(mMaxY, y);
+        }
+
+        //控制点不一定在曲线上，外接矩形只计入曲线的极值点(端点已计入)
+        private void includeQuadExtrema(float p0, float p1, float p2, boolean horizontal) {
+            float denominator = p0 - 2 * p1 + p2;
+            if (denominator != 0) {
+                includeExtremum((p0 - p1) / denominator, p0, p1, p1, p2, true, horizontal);
+            }
+        }
+
+        private void includeCubicExtrema(float p0, float p1, float p2, float p3, boolean horizontal) {
+            //导数 3(a t^2 + b t + c)
+            float a = -p0 + 3 * p1 - 3 * p2 + p3;
+            float b = 2 * (p0 - 2 * p1 + p2);
+            float c = p1 - p0;
+            if (Math.abs(a) < 1e-6f) {
+                if (b != 0) {
+                    includeExtremum(-c / b, p0, p1, p2, p3, false, horizontal);
+                }
+                return;
+            }
+            float discriminant = b * b - 4 * a * c;
+            if (discriminant < 0) {
+                return;
+            }
+            float root = (float) Math.sqrt(discriminant);
+            includeExtremum((-b + root) / (2 * a), p0, p1, p2, p3, false, horizontal);
+            includeExtremum((-b - root) / (2 * a), p0, p1, p2, p3, false, horizontal);
+        }
+
+        private void includeExtremum(float t, float p0, float p1, float p2, float p3, boolean quad, boolean horizontal) {
+            if (!(t > 0 && t < 1)) {
+                return;
+            }
+            float mt = 1 - t;
+            float value = quad
+                    ? mt * mt * p0 + 2 * mt * t * p1 + t * t * p3
+                    : mt * mt * mt * p0 + 3 * mt * mt * t * p1 + 3 * mt * t * t * p2 + t * t * t * p3;
+            if (horizontal) {
+                mMinX = Math.min(mMinX, value);
+                mMaxX = Math.max(mMaxX, value);
+            } else {
+                mMinY = Math.min(mMinY, value);
+                mMaxY = Math.max(mMaxY, value);
+            }
+        }
+
+        /**
+         * 按外接矩形把所有点归一化到0~1
+         */
+        SvgPathData normalize() {
+            float width = mMaxX - mMinX;
+            float height = mMaxY - mMinY;
+            if (!(width > 0 && height > 0)) {
+                throw new IllegalArgumentException("path has empty bounds: " + mData);
+            }
+            float[] points = Arrays.copyOf(mPoints, mPointCount);
+            for (int i = 0; i < points.length; i += 2) {
+                points[i] = (points[i] - mMinX) / width;
+                points[i + 1] = (points[i + 1] - mMinY) / height;
+            }
+            return new SvgPathData(Arrays.copyOf(mVerbs, mVerbCount), points, width / height);
+        }
+
+        private float readNumber() {
+            skipSeparators();
+            int start = mIndex;
+            int length = mData.length();
+            if (mIndex < length && (mData.charAt(mIndex) == '-' || mData.charAt(mIndex) == '+')) {
+                mIndex++;
+            }
+            boolean digits = false;
+            boolean dot = false;
+            while (mIndex < length) {
+                char c = mData.charAt(mIndex);
+                if (c >= '0' && c <= '9') {
+                    digits = true;
+                } else if (c == '.' && !dot) {
+                    //"0.5.5"表示0.5和.5两个数
+                    dot = true;
+                } else {
+                    break;
+                }
+                mIndex++;
+            }
+            if (!digits) {
+                throw error("number expected");
+            }
+            if (mIndex < length && (mData.charAt(mIndex) == 'e' || mData.charAt(mIndex) == 'E')) {
+                int exponent = mIndex + 1;
+                if (exponent < length && (mData.charAt(exponent) == '-' || mData.charAt(exponent) == '+')) {
+                    exponent++;
+                }
+                if (exponent < length && Character.isDigit(mData.charAt(exponent))) {
+                    mIndex = exponent;
+                    while (mIndex < length && Character.isDigit(mData.charAt(mIndex))) {
+                        mIndex++;
+                    }
+                }
+            }
+            float value = Float.parseFloat(mData.substring(start, mIndex));
+            skipSeparators();
+            return value;
+        }
+
+        //圆弧标志位可以不带分隔符，如"a1 1 0 00 1 1"
+        private boolean readFlag() {
+            skipSeparators();
+            if (mIndex < mData.length()) {
+                char c = mData.charAt(mIndex);
+                if (c == '0' || c == '1') {
+                    mIndex++;
+                    skipSeparators();
+                    return c == '1';
+                }
+            }
+            throw error("arc flag expected");
+        }
+
+        private void skipSeparators() {
+            while (mIndex < mData.length()) {
+                char c = mData.charAt(mIndex);
+                if (c != ',' && !Character.isWhitespace(c)) {
+                    break;
+                }
+                mIndex++;
+            }
+        }
+
+        private static boolean isCommand(char c) {
+            return "MmLlHhVvCcSsQqTtAaZz".indexOf(c) >= 0;
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " at index " + mIndex + ": " + mData);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.duke.switchbutton_test;
+
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.ColorFilter;
+import android.graphics.Paint;
+import android.graphics.RectF;
+
+/**
+ * @Author: zhangsheng
+ * @DateTime: 2026-10-16 21:10
+ * @Description: SwitchButtonView样式的尺寸、颜色和绘制 <br/>
+ * <p>
+ * SwitchButtonView与SwitchDrawable共用：默认尺寸和颜色、按边界计算的几何、按钮图片(来自共享的BitmapCache)和绘制； <br/>
+ * 按钮位置、显示哪张图片由调用方决定，动画、触摸状态留在view中。 <br/>
+ */
+final class SwitchButtonRenderer {
+    static final int WIDTH_DEFAULT = 70;//dp
+    static final int INNER_PADDING_DEFAULT = 1;//dp
+    static final int BG_WIDTH_DEFAULT = 1;//dp
+    static final int BG_COLOR1_DEFAULT = Color.parseColor("#D9D9D9");
+    static final int BG_COLOR2_DEFAULT = Color.WHITE;
+    static final int COVER_COLOR_DEFAULT = Color.parseColor("#D9D9D9");
+
+    int innerPaddingWidth;//圆角矩形与内圆的间距
+    int bgWidth;//边框粗细
+    int bgColor1 = BG_COLOR1_DEFAULT;//底纹颜色
+    int bgColor2 = BG_COLOR2_DEFAULT;//填充颜色
+    int coverColor = COVER_COLOR_DEFAULT;//选中颜色
+
+    //按钮圆心最左边、最右边位置，按钮半径
+    float centerXLeft, centerXRight;
+    int radius;
+    private final Paint paint;
+    //背景描边层、默认颜色填充层rectf
+    private final RectF roundRectFOut = new RectF();
+    private final RectF roundRectFFill = new RectF();
+    private float cornerRadius;
+    private float centerY;
+    //关闭、打开状态按钮图片(只引用缓存中的bitmap)，已缩放到的直径px
+    private Bitmap thumbOff, thumbOn;
+    private int thumbSize;
+
+    /**
+     * @param res 资源，用于计算默认尺寸
+     */
+    SwitchButtonRenderer(Resources res) {
+        float density = res.getDisplayMetrics().density;
+        innerPaddingWidth = (int) (INNER_PADDING_DEFAULT * density);
+        bgWidth = (int) (BG_WIDTH_DEFAULT * density);
+        paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        paint.setDither(true);
+    }
+
+    //按宽度计算的控件宽度(高度固定为宽度的一半)
+    static int measuredWidth(int width) {
+        return width - width / 8;
+    }
+
+    static int measuredHeight(int width) {
+        return width / 2;
+    }
+
+    /**
+     * 按边界计算几何
+     */
+    void setBounds(int left, int top, int right, int bottom) {
+        int height = bottom - top;
+        cornerRadius = height / 2;
+        centerY = top + height / 2;
+        centerXLeft = left + height / 2;
+        centerXRight = right - height / 2;
+        radius = height / 2 - bgWidth - innerPaddingWidth;
+        roundRectFOut.set(left, top, right, bottom);
+        roundRectFFill.set(left + bgWidth, top + bgWidth, right - bgWidth, bottom - bgWidth);
+    }
+
+    /**
+     * 准备按钮图片：按圆直径从共享缓存获取已缩放的bitmap，只在尺寸变化或被释放后重新获取
+     *
+     * @param res 资源
+     */
+    void prepareThumbs(Resources res) {
+        int diameter = radius * 2;
+        if (diameter <= 0) {
+            return;
+        }
+        if (diameter != thumbSize || thumbOff == null || thumbOn == null) {
+            BitmapCache cache = BitmapCache.getInstance();
+            thumbOff = cache.getBitmap(res, R.drawable.me_man, diameter, diameter);
+            thumbOn = cache.getBitmap(res, R.drawable.me_woman, diameter, diameter);
+            thumbSize = diameter;
+        }
+    }
+
+    //放开对缓存中按钮图片的引用
+    void releaseThumbs() {
+        thumbOff = null;
+        thumbOn = null;
+    }
+
+    /**
+     * @param isOn 是否打开状态
+     * @return 按钮图片，未准备好返回null
+     */
+    Bitmap getThumb(boolean isOn) {
+        return isOn ? thumbOn : thumbOff;
+    }
+
+    /**
+     * @param position 按钮位置：0在关闭端，1在打开端
+     * @return 按钮圆心x
+     */
+    float centerXAt(float position) {
+        return centerXLeft + (centerXRight - centerXLeft) * position;
+    }
+
+    /**
+     * 绘制背景、选中层和按钮图片
+     *
+     * @param canvas      画布
+     * @param centerX     按钮圆心x
+     * @param thumb       按钮图片，null时不画
+     * @param colorFilter 颜色过滤，可为null
+     */
+    void draw(Canvas canvas, float centerX, Bitmap thumb, ColorFilter colorFilter) {
+        paint.setColorFilter(colorFilter);
+        paint.setStyle(Paint.Style.FILL_AND_STROKE);
+        //画背景圆角矩形边框和填充
+        paint.setColor(bgColor1);
+        canvas.drawRoundRect(roundRectFOut, cornerRadius, cornerRadius, paint);
+        paint.setColor(bgColor2);
+        canvas.drawRoundRect(roundRectFFill, cornerRadius, cornerRadius, paint);
+        //画覆盖层圆角矩形
+        paint.setColor(calculateColor(centerX));
+        canvas.drawRoundRect(roundRectFOut, cornerRadius, cornerRadius, paint);
+        //画按钮图片(已预缩放到圆的直径，1:1绘制)
+        if (thumb != null) {
+            paint.setColor(0xFF000000);
+            canvas.drawBitmap(thumb, centerX - radius, centerY - radius, paint);
+        }
+    }
+
+    /**
+     * 根据移动的距离，设置颜色透明度
+     */
+    private int calculateColor(float centerX) {
+        //总距离
+        float total = centerXRight - centerXLeft;
+        //当前移动距离
+        float now = centerX - centerXLeft;
+        int alpha = Color.alpha(coverColor);
+        alpha *= now / total;
+        return Color.argb(alpha, Color.red(coverColor), Color.green(coverColor), Color.blue(coverColor));
+    }
+}
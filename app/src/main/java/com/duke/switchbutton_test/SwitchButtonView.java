@@ -1,22 +1,21 @@
 package com.duke.switchbutton_test;
 
-import android.animation.Animator;
-import android.animation.AnimatorListenerAdapter;
-import android.animation.ValueAnimator;
 import android.content.Context;
 import android.content.res.TypedArray;
 import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
 import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.Paint;
-import android.graphics.RectF;
+import android.os.Handler;
+import android.os.Looper;
 import android.util.AttributeSet;
 import android.util.TypedValue;
 import android.view.MotionEvent;
+import android.view.VelocityTracker;
 import android.view.View;
 import android.view.ViewConfiguration;
 import android.view.animation.AccelerateDecelerateInterpolator;
+import android.view.animation.AnimationUtils;
 
 /**
  * @Author: zhangsheng
@@ -30,39 +29,27 @@ public class SwitchButtonView extends View {
     private int widthDefault;
     private int mWidth;//宽度
     private int mHeight;//高度
-    private int radius;//半径
-
-    private final int WIDTH_DEFAULT = 70;//dp
-    private final int INNER_PADDING_DEFAULT = 1;
-    private final int BG_WIDTH_DEFAULT = 1;
-    private int BG_COLOR1_DEFAULT = Color.parseColor("#D9D9D9");
-    private int BG_COLOR2_DEFAULT = Color.WHITE;
-    private int COVER_COLOR_DEFAULT = Color.parseColor("#D9D9D9");
+
     private int CIRCLE_DEFAULT_COLOR_DEFAULT = Color.WHITE;
     private int CIRCLE_SELECT_COLOR_DEFAULT = Color.parseColor("#EEEEEE");
 
-    private int innerPaddingWidth;//圆角矩形与内圆的间距
-    private int bgColor1 = BG_COLOR1_DEFAULT;//底纹颜色
-    private int bgColor2 = BG_COLOR2_DEFAULT;//填充颜色
-    private int bgWidth;//边框粗细
-    private int coverColor = COVER_COLOR_DEFAULT;//选中颜色
+    //尺寸、颜色、按钮图片和绘制，与SwitchDrawable共用
+    private SwitchButtonRenderer renderer;
     private int circleDefaultColor = CIRCLE_DEFAULT_COLOR_DEFAULT;//圆默认颜色
     private int circleSelectColor = CIRCLE_SELECT_COLOR_DEFAULT;//圆按下颜色
     private boolean isToggleOn;
-    //背景描边层rectf
-    private RectF mRoundRectFOut = new RectF();
+    //当前绘制的按钮图片(只引用缓存中的bitmap，切换时不再解码)
     private Bitmap bitmap = null;
+    //内存紧张时放开缓存中的按钮图片，下次绘制时重新获取
+    private final CacheRegistry.TrimListener trimListener = new CacheRegistry.TrimListener() {
+        @Override
+        public void onTrimMemory(int level) {
+            bitmap = null;
+            renderer.releaseThumbs();
+            invalidate();
+        }
+    };
 
-    private Bitmap menbitmap = BitmapFactory.decodeResource(this.getContext().getResources(), R.drawable.me_man);
-    //背景默认颜色填充层rectf
-    private RectF mRoundRectFFill = new RectF();
-
-    //背景描边层画笔
-    private Paint mPaintBgOut;
-    //背景默认颜色填充层画笔
-    private Paint mPaintBgFill;
-    //背景选中层画笔
-    private Paint mPaintCover;
     //圆描边层画笔
     private Paint mPaintCircleOut;
     //圆默认颜色和按下画笔
@@ -71,29 +58,115 @@ public class SwitchButtonView extends View {
 
     //记录圆心最左边、最右边和当前位置
     private float centerXLeft, centerXRight, centerX;
-    private float lastX;//记录上一次x位置
+    private float lastX;//记录按下时的x位置
     private int mTouchSlop;
-    //圆运动动画
-    private ValueAnimator animator;
+    //拖动：按下时的圆心位置(动画中按下即为当前位置)、是否已超过最小移动距离
+    private float downCenterX;
+    private boolean isDragging;
+    //按下时要到达的状态(动画中按下为动画目标)：点击切换到相反状态，未拖动被取消时回到该状态
+    private boolean downTargetOn;
+    //抬起时的速度追踪(含批量上报的历史采样)
+    private VelocityTracker velocityTracker;
+    private int mMinFlingVelocity;
+    private int mMaxFlingVelocity;
+    //圆运动动画(同一个view重复使用，中途可反向、改变目标)
+    //从一端到另一端的动画时长ms，中途出发时按剩余距离缩短
     private final int ANIMATION_TIME = 100;
+    private final AccelerateDecelerateInterpolator animInterpolator = new AccelerateDecelerateInterpolator();
+    private boolean isAnimating;
+    private float animStartX, animEndX;
+    private long animStartTime;
+    private long animDuration;
+    //动画结束后的选中状态
+    private boolean animTargetOn;
 
     private OnToggleChangeListener onToggleChangeListener;
+    //合并回调的时间窗口ms(0表示每次状态变化立即回调)
+    private long toggleDebounceMillis;
+    //最后一次回调给监听的状态
+    private boolean lastDispatchedToggleOn;
+    private final Handler toggleHandler = new Handler(Looper.getMainLooper());
+    private final Runnable debouncedToggleChange = new Runnable() {
+        @Override
+        public void run() {
+            //窗口内状态变回原值时不回调
+            if (onToggleChangeListener != null && lastDispatchedToggleOn != isToggleOn) {
+                lastDispatchedToggleOn = isToggleOn;
+                onToggleChangeListener.onChange(isToggleOn);
+            }
+        }
+    };
 
+    /**
+     * 设置状态变化监听，只在状态真正变化时回调
+     *
+     * @param l 监听
+     */
     public void setOnToggleChangeListener(OnToggleChangeListener l) {
+        setOnToggleChangeListener(l, 0);
+    }
+
+    /**
+     * 设置合并模式的状态变化监听：连续快速切换时，只在最后一次切换后debounceMillis内没有新的切换时，
+     * 回调一次最终状态(与上次回调相同则不回调)；从窗口移除时立即回调尚未回调的最终状态
+     *
+     * @param l              监听
+     * @param debounceMillis 合并时间窗口ms，0表示每次状态变化立即回调
+     */
+    public void setOnToggleChangeListener(OnToggleChangeListener l, long debounceMillis) {
+        if (debounceMillis < 0) {
+            throw new IllegalArgumentException("debounceMillis must be >= 0: " + debounceMillis);
+        }
+        toggleHandler.removeCallbacks(debouncedToggleChange);
         this.onToggleChangeListener = l;
+        this.toggleDebounceMillis = debounceMillis;
+        this.lastDispatchedToggleOn = isToggleOn;
+    }
+
+    /**
+     * 状态发生变化后通知监听
+     */
+    private void dispatchToggleChange() {
+        if (onToggleChangeListener == null) {
+            return;
+        }
+        if (toggleDebounceMillis > 0) {
+            toggleHandler.removeCallbacks(debouncedToggleChange);
+            toggleHandler.postDelayed(debouncedToggleChange, toggleDebounceMillis);
+        } else {
+            lastDispatchedToggleOn = isToggleOn;
+            onToggleChangeListener.onChange(isToggleOn);
+        }
     }
 
     /**
-     * 修改选中状态
+     * 修改选中状态(带动画)：动画进行中调用时从圆的当前位置转向新的目标，不排队也不丢弃
      *
      * @param isToggleOn
      */
     public void setIsToggleOn(boolean isToggleOn) {
-        if (this.isToggleOn != isToggleOn) {
-            preAnimation();
+        boolean currentTarget = isAnimating ? animTargetOn : this.isToggleOn;
+        if (currentTarget != isToggleOn) {
+            settleTo(isToggleOn);
         }
     }
 
+    /**
+     * 直接切换到指定状态，不执行动画也不回调监听，供SwitchGroup批量设置使用(主线程调用)
+     *
+     * @param isToggleOn 是否选中
+     */
+    void applyToggleState(boolean isToggleOn) {
+        stopAnimation();
+        this.isToggleOn = isToggleOn;
+        //批量设置不回调，之后的合并回调以此为基准
+        toggleHandler.removeCallbacks(debouncedToggleChange);
+        lastDispatchedToggleOn = isToggleOn;
+        centerX = isToggleOn ? centerXRight : centerXLeft;
+        bitmap = renderer.getThumb(isToggleOn);
+        invalidate();
+    }
+
     /**
      * 获取当前是否选中值
      *
@@ -113,9 +186,8 @@ public class SwitchButtonView extends View {
 
     public SwitchButtonView(Context context, AttributeSet attrs, int defStyleAttr) {
         super(context, attrs, defStyleAttr);
-        widthDefault = (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, WIDTH_DEFAULT, getResources().getDisplayMetrics());
-        innerPaddingWidth = (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, INNER_PADDING_DEFAULT, getResources().getDisplayMetrics());
-        bgWidth = (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, BG_WIDTH_DEFAULT, getResources().getDisplayMetrics());
+        widthDefault = (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, SwitchButtonRenderer.WIDTH_DEFAULT, getResources().getDisplayMetrics());
+        renderer = new SwitchButtonRenderer(getResources());
 
         //初始化
         TypedArray array = context.obtainStyledAttributes(attrs, R.styleable.SwitchButtonView, defStyleAttr, 0);
@@ -125,22 +197,20 @@ public class SwitchButtonView extends View {
             switch (attr) {
                 case R.styleable.SwitchButtonView_innerPaddingWidth:
                     //圆角矩形与内圆的间距
-                    innerPaddingWidth = array.getDimensionPixelOffset(attr,
-                            (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, INNER_PADDING_DEFAULT, getResources().getDisplayMetrics()));
+                    renderer.innerPaddingWidth = array.getDimensionPixelOffset(attr, renderer.innerPaddingWidth);
                     break;
                 case R.styleable.SwitchButtonView_bgColor1:
-                    bgColor1 = array.getColor(attr, BG_COLOR1_DEFAULT);
+                    renderer.bgColor1 = array.getColor(attr, SwitchButtonRenderer.BG_COLOR1_DEFAULT);
                     break;
                 case R.styleable.SwitchButtonView_bgColor2:
-                    bgColor2 = array.getColor(attr, BG_COLOR2_DEFAULT);
+                    renderer.bgColor2 = array.getColor(attr, SwitchButtonRenderer.BG_COLOR2_DEFAULT);
                     break;
                 case R.styleable.SwitchButtonView_bgWidth:
-                    bgWidth = array.getDimensionPixelOffset(attr,
-                            (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, BG_WIDTH_DEFAULT, getResources().getDisplayMetrics()));
+                    renderer.bgWidth = array.getDimensionPixelOffset(attr, renderer.bgWidth);
                     break;
                 case R.styleable.SwitchButtonView_coverColor:
                     //选中颜色
-                    coverColor = array.getColor(attr, COVER_COLOR_DEFAULT);
+                    renderer.coverColor = array.getColor(attr, SwitchButtonRenderer.COVER_COLOR_DEFAULT);
                     break;
                 case R.styleable.SwitchButtonView_circleDefaultColor:
                     //圆默认颜色
@@ -157,243 +227,262 @@ public class SwitchButtonView extends View {
             }
         }
         array.recycle();
-        //背景描边层画笔
-        mPaintBgOut = new Paint(Paint.ANTI_ALIAS_FLAG);
-        mPaintBgOut.setDither(true);
-        mPaintBgOut.setStyle(Paint.Style.FILL_AND_STROKE);
-        mPaintBgOut.setColor(bgColor1);
-        //背景默认颜色覆盖层画笔
-        mPaintBgFill = new Paint(Paint.ANTI_ALIAS_FLAG);
-        mPaintBgFill.setDither(true);
-        mPaintBgFill.setStyle(Paint.Style.FILL_AND_STROKE);
-        mPaintBgFill.setColor(bgColor2);
         //圆描边层画笔
         mPaintCircleOut = new Paint(Paint.ANTI_ALIAS_FLAG);
         mPaintCircleOut.setDither(true);
         mPaintCircleOut.setStyle(Paint.Style.FILL_AND_STROKE);
-        mPaintCircleOut.setColor(bgColor1);
+        mPaintCircleOut.setColor(renderer.bgColor1);
         //圆默认颜色覆盖层画笔
         mPaintCircleFill = new Paint(Paint.ANTI_ALIAS_FLAG);
         mPaintCircleFill.setDither(true);
         mPaintCircleFill.setStyle(Paint.Style.FILL);
         mPaintCircleFill.setColor(circleDefaultColor);
-        //背景选中层颜色画笔
-        mPaintCover = new Paint(Paint.ANTI_ALIAS_FLAG);
-        mPaintCover.setDither(true);
-        mPaintCover.setStyle(Paint.Style.FILL_AND_STROKE);
-        mPaintCover.setColor(coverColor);
 
 
-        //获取系统指定的最小move距离
-        mTouchSlop = ViewConfiguration.get(context).getScaledTouchSlop();
-    //初始默认按钮图片
-        bitmap =     BitmapFactory.decodeResource(this.getContext().getResources(), R.drawable.me_woman);
+        //获取系统指定的最小move距离、fling速度范围
+        ViewConfiguration configuration = ViewConfiguration.get(context);
+        mTouchSlop = configuration.getScaledTouchSlop();
+        mMinFlingVelocity = configuration.getScaledMinimumFlingVelocity();
+        mMaxFlingVelocity = configuration.getScaledMaximumFlingVelocity();
+        CacheRegistry.install(context);
+        CacheRegistry.register(trimListener);
+    }
 
+    /**
+     * 准备按钮图片：按测量得到的圆直径从共享缓存获取已缩放(已过滤)的bitmap，
+     * 只在尺寸变化时重新获取，onDraw中直接1:1绘制
+     */
+    private void prepareThumbBitmaps() {
+        renderer.prepareThumbs(getResources());
+        //动画过程中显示的是目标状态的图片
+        boolean showOn = isAnimating ? animTargetOn : isToggleOn;
+        bitmap = renderer.getThumb(showOn);
     }
 
     @Override
     protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
         super.onMeasure(widthMeasureSpec, heightMeasureSpec);
         int widthMode = MeasureSpec.getMode(widthMeasureSpec);
-        if (widthMode == MeasureSpec.EXACTLY) {
-            int width = getMeasuredWidth();
-            if (width > 0) {
-                mWidth = width - width / 8;
-                mHeight = width / 2;
-                radius = mHeight / 2 - bgWidth - innerPaddingWidth;
-            } else {
-                mWidth = widthDefault - widthDefault / 8;
-                mHeight = widthDefault / 2;
-                radius = mHeight / 2 - bgWidth - innerPaddingWidth;
-            }
-        } else {
-            mWidth = widthDefault - widthDefault / 8;
-            mHeight = widthDefault / 2;
-            radius = mHeight / 2 - bgWidth - innerPaddingWidth;
+        int width = widthDefault;
+        if (widthMode == MeasureSpec.EXACTLY && getMeasuredWidth() > 0) {
+            width = getMeasuredWidth();
         }
+        mWidth = SwitchButtonRenderer.measuredWidth(width);
+        mHeight = SwitchButtonRenderer.measuredHeight(width);
         setMeasuredDimension(mWidth, mHeight);
+        renderer.setBounds(0, 0, mWidth, mHeight);
         //圆环初始位置
-        centerXLeft = mHeight / 2;
-        centerXRight = mWidth - centerXLeft;
-        if (this.isToggleOn) {
-            centerX = centerXRight+radius;
-            if (onToggleChangeListener != null) {
-                onToggleChangeListener.onChange(this.isToggleOn);
-            }
-        } else {
-            centerX = centerXLeft-radius;
-            if (onToggleChangeListener != null) {
-                onToggleChangeListener.onChange(this.isToggleOn);
-            }
+        centerXLeft = renderer.centerXLeft;
+        centerXRight = renderer.centerXRight;
+        if (!isAnimating) {
+            centerX = this.isToggleOn ? centerXRight : centerXLeft;
         }
-        mRoundRectFOut.set(0, 0, getMeasuredWidth(), getMeasuredHeight());
-        mRoundRectFFill.set(bgWidth, bgWidth, getMeasuredWidth() - bgWidth, getMeasuredHeight() - bgWidth);
+        //按钮图片缩放到圆的直径
+        prepareThumbBitmaps();
     }
 
     @Override
     protected void onDraw(Canvas canvas) {
-        //画背景圆角矩形边框和填充
-        canvas.drawRoundRect(mRoundRectFOut, getMeasuredHeight() / 2, getMeasuredHeight() / 2, mPaintBgOut);
-        canvas.drawRoundRect(mRoundRectFFill, getMeasuredHeight() / 2, getMeasuredHeight() / 2, mPaintBgFill);
-
-
-        //画覆盖层圆角矩形
-        mPaintCover.setColor(calculateColor());
-        canvas.drawRoundRect(mRoundRectFOut, getMeasuredHeight() / 2, getMeasuredHeight() / 2, mPaintCover);
-
-        //画圆边框和填充
-      //  canvas.drawCircle(centerX, getMeasuredHeight() / 2, radius, mPaintCircleOut);
-
-        canvas.scale(0.55f,0.55f);
-
-       canvas.drawBitmap(bitmap,centerX,getMeasuredHeight()-radius*2,null);
-     //   bitmap.recycle();
-      //  canvas.drawCircle(centerX, getMeasuredHeight() / 2, radius - bgWidth, mPaintCircleFill);
-    }
-
-    /**
-     * 根据移动的距离，设置颜色透明度
-     *
-     * @return
-     */
-    private int calculateColor() {
-        //总距离
-        float total = centerXRight - centerXLeft;
-        //当前移动距离
-        float now = centerX - centerXLeft;
-        //获取颜色的red，green，blue数值
-        int red = Color.red(coverColor);
-        int green = Color.green(coverColor);
-        int blue = Color.blue(coverColor);
-        //获取选中层颜色的透明度
-        int alpha = Color.alpha(coverColor);
-        alpha *= now / total;
-        return Color.argb(alpha, red, green, blue);
+        if (bitmap == null) {
+            //内存紧张时被释放，重新获取
+            prepareThumbBitmaps();
+        }
+        renderer.draw(canvas, centerX, bitmap, null);
     }
 
-    private void updateCircle(MotionEvent event) {
-        if (event.getX() > centerXRight) {
+    private void updateCircle(float x) {
+        if (x > centerXRight) {
             centerX = centerXRight;
-        } else if (event.getX() < centerXLeft) {
+        } else if (x < centerXLeft) {
             centerX = centerXLeft;
         } else {
-            centerX = event.getX();
+            centerX = x;
         }
         invalidate();
     }
 
     /**
-     * 根据touchX的距离，计算选中状态
+     * 拖动结束时计算选中状态：快速滑动按速度方向切换，否则按圆所在的一半决定
      *
-     * @param event   事件对象
-     * @param isMoved 是否是移动
+     * @param velocityX 抬起时的水平速度px/s
+     * @return 是否选中
      */
-    private void countToggle(MotionEvent event, boolean isMoved) {
-        if (isMoved) {
-            //移动事件
-            boolean tempBool;
-            if (event.getX() >= getMeasuredWidth() / 2) {
-                centerX = centerXRight+radius;
-                bitmap=  BitmapFactory.decodeResource(this.getContext().getResources(), R.drawable.me_woman);
-
-                tempBool = true;
-            } else {
-                centerX = centerXLeft-radius;
-                bitmap =    BitmapFactory.decodeResource(this.getContext().getResources(), R.drawable.me_man);
-
-                tempBool = false;
-            }
-            if (this.isToggleOn != tempBool) {
-                this.isToggleOn = tempBool;
-                if (onToggleChangeListener != null) {
-                    onToggleChangeListener.onChange(isToggleOn);
-                }
-                invalidate();
-            }
-        } else {
-            preAnimation();
+    private boolean countToggle(float velocityX) {
+        if (Math.abs(velocityX) >= mMinFlingVelocity) {
+            return velocityX > 0;
         }
+        return centerX >= (centerXLeft + centerXRight) / 2;
     }
 
-    private void preAnimation() {
-        //当作点击事件处理
-        float start = centerX;//从当前圆所在的中心点开始动画
-        float end;
-        if (this.isToggleOn) {
-            end = centerXLeft-radius-bgWidth;
-            bitmap =    BitmapFactory.decodeResource(this.getContext().getResources(), R.drawable.me_man);
-
+    /**
+     * 从当前位置动画到指定状态，已在目标位置时立即生效
+     *
+     * @param targetOn 目标状态
+     */
+    private void settleTo(boolean targetOn) {
+        float end = targetOn ? centerXRight : centerXLeft;
+        bitmap = renderer.getThumb(targetOn);
+        if (centerX == end) {
+            finishAnimation(targetOn);
         } else {
-            end = centerXRight+radius;
-            bitmap=  BitmapFactory.decodeResource(this.getContext().getResources(), R.drawable.me_woman);
-
+            animation(centerX, end, targetOn);
         }
-        //动画
-        animation(start, end);
     }
 
     @Override
     public boolean onTouchEvent(MotionEvent event) {
-        if (animator != null && animator.isRunning())
-            return true;
-        int action = event.getAction();
-        switch (action) {
+        if (velocityTracker == null) {
+            velocityTracker = VelocityTracker.obtain();
+        }
+        //MOVE事件中批量上报的历史采样一并参与速度计算
+        velocityTracker.addMovement(event);
+        switch (event.getActionMasked()) {
             case MotionEvent.ACTION_DOWN:
+                //动画中按下：圆停在当前位置由手指接管，点击则切换到动画目标的相反状态
+                downTargetOn = isAnimating ? animTargetOn : isToggleOn;
+                stopAnimation();
                 lastX = event.getX();
+                downCenterX = centerX;
+                isDragging = false;
                 mPaintCircleFill.setColor(circleSelectColor);
                 break;
             case MotionEvent.ACTION_MOVE:
                 mPaintCircleFill.setColor(circleSelectColor);
-                //修改绘制状态
-                updateCircle(event);
+                if (!isDragging && Math.abs(event.getX() - lastX) > mTouchSlop) {
+                    isDragging = true;
+                    if (getParent() != null) {
+                        getParent().requestDisallowInterceptTouchEvent(true);
+                    }
+                }
+                if (isDragging) {
+                    //圆跟随手指的相对位移，动画中按下时不会跳到手指位置
+                    updateCircle(downCenterX + event.getX() - lastX);
+                }
                 break;
             case MotionEvent.ACTION_UP:
                 mPaintCircleFill.setColor(circleDefaultColor);
-                //手势弹起，根据手势所在位置计算是否该选中
-                countToggle(event, (Math.abs(lastX - event.getX()) > mTouchSlop));
+                if (isDragging) {
+                    velocityTracker.computeCurrentVelocity(1000, mMaxFlingVelocity);
+                    settleTo(countToggle(velocityTracker.getXVelocity()));
+                } else {
+                    settleTo(!downTargetOn);
+                }
+                recycleVelocityTracker();
+                break;
+            case MotionEvent.ACTION_CANCEL:
+                //事件被父view拦截：拖动中回到最近的状态，否则继续到按下时的目标(动画中按下不会退回旧状态)
+                mPaintCircleFill.setColor(circleDefaultColor);
+                settleTo(isDragging ? countToggle(0) : downTargetOn);
+                recycleVelocityTracker();
                 break;
         }
         return true;
     }
 
+    private void recycleVelocityTracker() {
+        isDragging = false;
+        if (velocityTracker != null) {
+            velocityTracker.recycle();
+            velocityTracker = null;
+        }
+    }
+
+    /**
+     * 移动动画，保持当前的目标状态(动画中为动画目标，否则为当前选中状态)
+     *
+     * @param start 起点圆心x
+     * @param end   终点圆心x
+     * @deprecated 切换状态请使用{@link #setIsToggleOn(boolean)}，动画目标与选中状态由控件维护
+     */
+    @Deprecated
+    public void animation(float start, float end) {
+        animation(start, end, isAnimating ? animTargetOn : isToggleOn);
+    }
+
+    /**
+     * 移动动画(由共享的AnimationTicker驱动，不再为每次切换创建ValueAnimator)：
+     * 重复调用只更新起止位置和时长，正在进行的动画从新的起点继续，时长与移动距离成正比
+     *
+     * @param start    起点圆心x
+     * @param end      终点圆心x
+     * @param targetOn 到达终点后的选中状态
+     */
+    private void animation(float start, float end, boolean targetOn) {
+        animStartX = start;
+        animEndX = end;
+        animTargetOn = targetOn;
+        float travel = centerXRight - centerXLeft;
+        animDuration = travel > 0 ? (long) (ANIMATION_TIME * Math.min(1, Math.abs(end - start) / travel)) : 0;
+        animStartTime = AnimationUtils.currentAnimationTimeMillis();
+        isAnimating = true;
+        AnimationTicker.getInstance().register(animationCallback);
+    }
+
+    /**
+     * 停止动画，圆停在当前位置，选中状态不变
+     */
+    private void stopAnimation() {
+        if (isAnimating) {
+            isAnimating = false;
+            AnimationTicker.getInstance().unregister(animationCallback);
+        }
+    }
+
     /**
-     * 移动动画
+     * 圆到达目标位置，更新选中状态并在变化时通知监听
      *
-     * @param start
-     * @param end
+     * @param targetOn 目标状态
+     */
+    private void finishAnimation(boolean targetOn) {
+        isAnimating = false;
+        centerX = targetOn ? centerXRight : centerXLeft;
+        if (isToggleOn != targetOn) {
+            isToggleOn = targetOn;
+            dispatchToggleChange();
+        }
+        invalidate();
+    }
+
+    /**
+     * 立即结束动画：圆直接到达目标位置并提交目标状态(不再回到动画开始位置，避免界面与选中状态不一致)
+     */
+    private void endAnimation() {
+        if (!isAnimating) {
+            return;
+        }
+        AnimationTicker.getInstance().unregister(animationCallback);
+        finishAnimation(animTargetOn);
+    }
+
+    /**
+     * 动画帧回调
      */
-    public void animation(final float start, final float end) {
-        animator = ValueAnimator.ofFloat(start, end);
-        //下面方法有疑问
-        //animator.setFloatValues(start,end);
-        animator.setInterpolator(new AccelerateDecelerateInterpolator());
-        animator.setDuration(ANIMATION_TIME);
-        animator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
-            @Override
-            public void onAnimationUpdate(ValueAnimator animation) {
-                centerX = (float) animation.getAnimatedValue();
-                postInvalidate();
+    private final AnimationTicker.Callback animationCallback = new AnimationTicker.Callback() {
+        @Override
+        public boolean onAnimationFrame(long frameTimeMillis) {
+            if (!isAnimating) {
+                return false;
             }
-        });
-        animator.addListener(new AnimatorListenerAdapter() {
-            @Override
-            public void onAnimationEnd(Animator animation) {
-                SwitchButtonView.this.isToggleOn = !SwitchButtonView.this.isToggleOn;
-                centerX = end;
-                if (onToggleChangeListener != null) {
-                    onToggleChangeListener.onChange(SwitchButtonView.this.isToggleOn);
-                }
-                postInvalidate();
+            float fraction = animDuration > 0 ? (float) (frameTimeMillis - animStartTime) / animDuration : 1;
+            if (fraction < 1) {
+                centerX = animStartX + (animEndX - animStartX) * animInterpolator.getInterpolation(Math.max(0, fraction));
+                invalidate();
+                return true;
             }
+            //动画结束：监听中再次切换会开始新的动画(已重新注册)，此时需继续接收帧
+            finishAnimation(animTargetOn);
+            return isAnimating;
+        }
+    };
 
-            @Override
-            public void onAnimationCancel(Animator animation) {
-                centerX = start;
-                postInvalidate();
-            }
-        });
-        //不要忘记了启动动画
-        animator.start();
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        endAnimation();
+        recycleVelocityTracker();
+        //立即回调窗口内尚未回调的状态：用户已完成的切换不丢失，移除后也不会再延迟回调
+        toggleHandler.removeCallbacks(debouncedToggleChange);
+        debouncedToggleChange.run();
     }
 
     public interface OnToggleChangeListener {
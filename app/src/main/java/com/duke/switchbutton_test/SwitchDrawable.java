@@ -0,0 +1,176 @@
+package com.duke.switchbutton_test;
+
+import android.content.res.Resources;
+import android.graphics.Canvas;
+import android.graphics.ColorFilter;
+import android.graphics.Paint;
+import android.graphics.PixelFormat;
+import android.graphics.Rect;
+import android.graphics.drawable.Drawable;
+
+/**
+ * @Author: zhangsheng
+ * @DateTime: 2026-10-16 16:05
+ * @Description: 无状态的开关Drawable <br/>
+ * <p>
+ * 绘制SwitchView、SwitchButtonView两种样式，绘制状态只由{@link SwitchState}决定， <br/>
+ * 不包含动画、触摸、属性解析，适合在列表的行布局中直接绘制大量开关。 <br/>
+ * 几何和绘制与SwitchView、SwitchButtonView共用{@link SwitchViewRenderer}、{@link SwitchButtonRenderer}， <br/>
+ * 在边界变化时计算一次；SwitchButtonView样式的按钮图片来自共享的BitmapCache。 <br/>
+ */
+public class SwitchDrawable extends Drawable {
+    //SwitchView样式
+    public static final int STYLE_SWITCH_VIEW = 1;
+    //SwitchButtonView样式
+    public static final int STYLE_SWITCH_BUTTON = 2;
+
+    private final Resources mResources;
+    private final int mStyle;
+    private final float mDensity;
+    private final Paint mPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    //只创建当前样式的renderer
+    private final SwitchViewRenderer mSwitchViewRenderer;
+    private final SwitchButtonRenderer mSwitchButtonRenderer;
+    private boolean mCanDraw;
+    private SwitchState mSwitchState = SwitchState.OFF;
+    private int mColorPrimary = SwitchViewRenderer.DEFAULT_COLOR_PRIMARY;
+    private int mColorPrimaryDark = SwitchViewRenderer.DEFAULT_COLOR_PRIMARY_DARK;
+    private int mAlpha = 0xFF;
+    private ColorFilter mColorFilter;
+
+    /**
+     * @param res   资源
+     * @param style 样式，{@link #STYLE_SWITCH_VIEW}或{@link #STYLE_SWITCH_BUTTON}
+     */
+    public SwitchDrawable(Resources res, int style) {
+        if (style != STYLE_SWITCH_VIEW && style != STYLE_SWITCH_BUTTON) {
+            throw new IllegalArgumentException("unknown style: " + style);
+        }
+        mResources = res;
+        mStyle = style;
+        mDensity = res.getDisplayMetrics().density;
+        if (style == STYLE_SWITCH_VIEW) {
+            mSwitchViewRenderer = new SwitchViewRenderer();
+            mSwitchButtonRenderer = null;
+        } else {
+            mSwitchViewRenderer = null;
+            mSwitchButtonRenderer = new SwitchButtonRenderer(res);
+        }
+    }
+
+    /**
+     * 设置绘制状态
+     *
+     * @param switchState 状态
+     */
+    public void setSwitchState(SwitchState switchState) {
+        if (switchState == null) throw new IllegalArgumentException("empty state");
+        if (!switchState.equals(mSwitchState)) {
+            mSwitchState = switchState;
+            invalidateSelf();
+        }
+    }
+
+    public SwitchState getSwitchState() {
+        return mSwitchState;
+    }
+
+    /**
+     * 设置SwitchView样式的颜色
+     *
+     * @param colorPrimary     打开时背景色
+     * @param colorPrimaryDark 打开时滑块边框色
+     */
+    public void setColor(int colorPrimary, int colorPrimaryDark) {
+        mColorPrimary = colorPrimary;
+        mColorPrimaryDark = colorPrimaryDark;
+        invalidateSelf();
+    }
+
+    @Override
+    public int getIntrinsicWidth() {
+        if (mStyle == STYLE_SWITCH_VIEW) {
+            return (int) (SwitchViewRenderer.WIDTH_DEFAULT * mDensity + 0.5f);
+        }
+        return SwitchButtonRenderer.measuredWidth((int) (SwitchButtonRenderer.WIDTH_DEFAULT * mDensity + 0.5f));
+    }
+
+    @Override
+    public int getIntrinsicHeight() {
+        if (mStyle == STYLE_SWITCH_VIEW) {
+            return (int) (getIntrinsicWidth() * SwitchViewGeometry.RATIO_ASPECT);
+        }
+        return SwitchButtonRenderer.measuredHeight((int) (SwitchButtonRenderer.WIDTH_DEFAULT * mDensity + 0.5f));
+    }
+
+    @Override
+    protected void onBoundsChange(Rect bounds) {
+        super.onBoundsChange(bounds);
+        mCanDraw = bounds.width() > 0 && bounds.height() > 0;
+        if (!mCanDraw) {
+            return;
+        }
+        if (mStyle == STYLE_SWITCH_VIEW) {
+            mCanDraw = mSwitchViewRenderer.setBounds(bounds.left, bounds.top, bounds.right, bounds.bottom);
+        } else {
+            mSwitchButtonRenderer.setBounds(bounds.left, bounds.top, bounds.right, bounds.bottom);
+            mSwitchButtonRenderer.prepareThumbs(mResources);
+        }
+    }
+
+    @Override
+    public void draw(Canvas canvas) {
+        if (!mCanDraw) {
+            return;
+        }
+        //整体透明度用一个图层实现，各层颜色之间不会互相透出
+        final int saveCount;
+        if (mAlpha < 0xFF) {
+            Rect bounds = getBounds();
+            saveCount = canvas.saveLayerAlpha(bounds.left, bounds.top, bounds.right, bounds.bottom,
+                    mAlpha, Canvas.ALL_SAVE_FLAG);
+        } else {
+            saveCount = -1;
+        }
+        final float position = mSwitchState.getPosition();
+        final boolean isOn = mSwitchState.isOn();
+        if (mStyle == STYLE_SWITCH_VIEW) {
+            mPaint.setColorFilter(mColorFilter);
+            mSwitchViewRenderer.drawTrack(canvas, mPaint, isOn, mColorPrimary, position);
+            mSwitchViewRenderer.drawThumb(canvas, mPaint, mSwitchViewRenderer.geometry.translateAt(position), 0,
+                    false, isOn ? mColorPrimaryDark : SwitchViewRenderer.COLOR_OFF_DARK, true, null);
+            mPaint.setStyle(Paint.Style.FILL);
+        } else {
+            SwitchButtonRenderer renderer = mSwitchButtonRenderer;
+            //按钮显示目标状态的图片
+            renderer.draw(canvas, renderer.centerXAt(position), renderer.getThumb(isOn), mColorFilter);
+        }
+        if (saveCount >= 0) {
+            canvas.restoreToCount(saveCount);
+        }
+    }
+
+    @Override
+    public void setAlpha(int alpha) {
+        if (mAlpha != alpha) {
+            mAlpha = alpha;
+            invalidateSelf();
+        }
+    }
+
+    @Override
+    public int getAlpha() {
+        return mAlpha;
+    }
+
+    @Override
+    public void setColorFilter(ColorFilter colorFilter) {
+        mColorFilter = colorFilter;
+        invalidateSelf();
+    }
+
+    @Override
+    public int getOpacity() {
+        return PixelFormat.TRANSLUCENT;
+    }
+}
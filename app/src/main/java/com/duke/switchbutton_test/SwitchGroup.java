@@ -0,0 +1,132 @@
+package com.duke.switchbutton_test;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.SparseArray;
+import android.util.SparseBooleanArray;
+import android.view.View;
+
+/**
+ * @Author: zhangsheng
+ * @DateTime: 2026-10-16 15:10
+ * @Description: 开关批量控制器 <br/>
+ * <p>
+ * 登记多个SwitchView/SwitchButtonView后，一次性在主线程应用一批目标状态： <br/>
+ * 不执行动画，不回调各控件自身的监听，只回调一次汇总的变化事件。 <br/>
+ */
+public class SwitchGroup {
+    private final SparseArray<View> mSwitches = new SparseArray<>();
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+    private OnGroupChangeListener mOnGroupChangeListener;
+
+    public void setOnGroupChangeListener(OnGroupChangeListener l) {
+        this.mOnGroupChangeListener = l;
+    }
+
+    /**
+     * 登记开关
+     *
+     * @param id   开关id
+     * @param view 开关控件
+     */
+    public void register(int id, SwitchView view) {
+        mSwitches.put(id, view);
+    }
+
+    /**
+     * 登记开关
+     *
+     * @param id   开关id
+     * @param view 开关控件
+     */
+    public void register(int id, SwitchButtonView view) {
+        mSwitches.put(id, view);
+    }
+
+    /**
+     * 取消登记
+     *
+     * @param id 开关id
+     */
+    public void unregister(int id) {
+        mSwitches.remove(id);
+    }
+
+    /**
+     * 获取开关当前状态
+     *
+     * @param id 开关id
+     * @return 是否打开，未登记返回false
+     */
+    public boolean isOn(int id) {
+        View view = mSwitches.get(id);
+        return view != null && isOn(view);
+    }
+
+    /**
+     * 批量应用目标状态，非主线程调用时切换到主线程执行
+     *
+     * @param targetStates 开关id -> 目标状态
+     */
+    public void apply(SparseBooleanArray targetStates) {
+        if (Looper.myLooper() != Looper.getMainLooper()) {
+            final SparseBooleanArray copy = targetStates.clone();
+            mHandler.post(new Runnable() {
+                @Override
+                public void run() {
+                    apply(copy);
+                }
+            });
+            return;
+        }
+        int size = targetStates.size();
+        int[] changedIds = new int[size];
+        boolean[] changedStates = new boolean[size];
+        int changedCount = 0;
+        for (int i = 0; i < size; i++) {
+            int id = targetStates.keyAt(i);
+            boolean on = targetStates.valueAt(i);
+            View view = mSwitches.get(id);
+            if (view == null || isOn(view) == on) {
+                continue;
+            }
+            if (view instanceof SwitchView) {
+                ((SwitchView) view).applyOpenedState(on);
+            } else {
+                ((SwitchButtonView) view).applyToggleState(on);
+            }
+            changedIds[changedCount] = id;
+            changedStates[changedCount] = on;
+            changedCount++;
+        }
+        if (changedCount > 0 && mOnGroupChangeListener != null) {
+            if (changedCount < size) {
+                int[] ids = new int[changedCount];
+                boolean[] states = new boolean[changedCount];
+                System.arraycopy(changedIds, 0, ids, 0, changedCount);
+                System.arraycopy(changedStates, 0, states, 0, changedCount);
+                changedIds = ids;
+                changedStates = states;
+            }
+            mOnGroupChangeListener.onGroupChanged(changedIds, changedStates);
+        }
+    }
+
+    private static boolean isOn(View view) {
+        if (view instanceof SwitchView) {
+            return ((SwitchView) view).isOpened();
+        }
+        return ((SwitchButtonView) view).getIsToggleOn();
+    }
+
+    /**
+     * 批量变化监听
+     */
+    public interface OnGroupChangeListener {
+        /**
+         * @param ids    状态发生变化的开关id
+         * @param states 对应的新状态
+         */
+        void onGroupChanged(int[] ids, boolean[] states);
+    }
+}
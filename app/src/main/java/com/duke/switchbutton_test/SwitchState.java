@@ -0,0 +1,65 @@
+package com.duke.switchbutton_test;
+
+/**
+ * @Author: zhangsheng
+ * @DateTime: 2026-10-16 15:50
+ * @Description: 开关绘制状态(不可变值对象) <br/>
+ * <p>
+ * isOn为目标状态，progress为滑块向目标状态移动的进度(0刚开始，1已到位)。 <br/>
+ */
+public final class SwitchState {
+    public static final SwitchState ON = new SwitchState(true, 1);
+    public static final SwitchState OFF = new SwitchState(false, 1);
+
+    private final boolean isOn;
+    private final float progress;
+
+    private SwitchState(boolean isOn, float progress) {
+        this.isOn = isOn;
+        this.progress = progress;
+    }
+
+    /**
+     * 获取状态，静止状态返回共享实例
+     *
+     * @param isOn     目标状态
+     * @param progress 移动进度，超出[0, 1]时截断
+     * @return 状态
+     */
+    public static SwitchState of(boolean isOn, float progress) {
+        if (progress >= 1) {
+            return isOn ? ON : OFF;
+        }
+        return new SwitchState(isOn, Math.max(0, progress));
+    }
+
+    public boolean isOn() {
+        return isOn;
+    }
+
+    public float getProgress() {
+        return progress;
+    }
+
+    /**
+     * 滑块位置：0在关闭端，1在打开端
+     *
+     * @return 位置
+     */
+    public float getPosition() {
+        return isOn ? progress : 1 - progress;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof SwitchState)) return false;
+        SwitchState that = (SwitchState) o;
+        return isOn == that.isOn && Float.compare(progress, that.progress) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (isOn ? 1 : 0) + Float.floatToIntBits(progress);
+    }
+}
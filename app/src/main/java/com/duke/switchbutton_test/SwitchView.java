@@ -4,12 +4,9 @@ import android.annotation.SuppressLint;
 import android.annotation.TargetApi;
 import android.content.Context;
 import android.content.res.TypedArray;
+import android.graphics.Bitmap;
 import android.graphics.Canvas;
 import android.graphics.Paint;
-import android.graphics.Path;
-import android.graphics.RadialGradient;
-import android.graphics.RectF;
-import android.graphics.Shader;
 import android.os.Build;
 import android.os.Parcel;
 import android.os.Parcelable;
@@ -18,24 +15,56 @@ import android.util.TypedValue;
 import android.view.MotionEvent;
 import android.view.View;
 import android.view.animation.AccelerateInterpolator;
+import android.view.animation.AnimationUtils;
 
 public class SwitchView extends View {
-    private final int DEFAULT_COLOR_PRIMARY = 0xFF4BD763;
-    private final int DEFAULT_COLOR_PRIMARY_DARK = 0xFF3AC652;
-    private final float RATIO_ASPECT = 0.68f;
-    private final float ANIMATION_SPEED = 0.1f; // (0,1]
-    private static final int STATE_SWITCH_ON = 4; // you change value you die
-    private static final int STATE_SWITCH_ON2 = 3;
-    private static final int STATE_SWITCH_OFF2 = 2;
-    private static final int STATE_SWITCH_OFF = 1;
+    private static final long ANIMATION_DURATION_DEFAULT = 166; // ms, ten frames at 60Hz
+    private static final int STATE_SWITCH_ON = SwitchViewGeometry.STATE_SWITCH_ON;
+    private static final int STATE_SWITCH_ON2 = SwitchViewGeometry.STATE_SWITCH_ON2;
+    private static final int STATE_SWITCH_OFF2 = SwitchViewGeometry.STATE_SWITCH_OFF2;
+    private static final int STATE_SWITCH_OFF = SwitchViewGeometry.STATE_SWITCH_OFF;
 
     private final AccelerateInterpolator interpolator = new AccelerateInterpolator(2);
     private final Paint paint = new Paint();
-    private final Path sPath = new Path();
-    private final Path bPath = new Path();
-    private final RectF bRectF = new RectF();
-    private float sAnim, bAnim;
-    private RadialGradient shadowGradient;
+    // geometry and drawing shared with SwitchDrawable
+    private final SwitchViewRenderer renderer = new SwitchViewRenderer();
+    private final SwitchViewGeometry geometry = renderer.geometry;
+    private final FrameAnimation sAnimation = new FrameAnimation(ANIMATION_DURATION_DEFAULT);
+    private final FrameAnimation bAnimation = new FrameAnimation(ANIMATION_DURATION_DEFAULT);
+    private AnimationClock animationClock = new AnimationClock() {
+        @Override
+        public long now() {
+            // frame time of the current vsync while drawing
+            return AnimationUtils.currentAnimationTimeMillis();
+        }
+    };
+    // advanced by the shared AnimationTicker, one frame callback for all switches
+    private final AnimationTicker.Callback animationCallback = new AnimationTicker.Callback() {
+        @Override
+        public boolean onAnimationFrame(long frameTimeMillis) {
+            final long now = animationClock.now();
+            final boolean running = sAnimation.update(now) > 0 | bAnimation.update(now) > 0;
+            invalidate();
+            return running;
+        }
+    };
+    // pre-rendered thumb shadow shared through ShadowAtlas, one bitmap draw per frame
+    private ShadowAtlas.Entry shadowEntry;
+    private boolean useSoftwareLayer;
+    // blit the rest pose from a snapshot on software canvases; off only for benchmarks
+    private boolean idleSnapshotEnabled = true;
+    // rest poses rasterized once per (size, colors, shadow) and shared through BitmapCache
+    private Bitmap snapshotOn, snapshotOff;
+    // drops references to shared caches under memory pressure; everything is rebuilt on the next draw
+    private final CacheRegistry.TrimListener trimListener = new CacheRegistry.TrimListener() {
+        @Override
+        public void onTrimMemory(int level) {
+            releaseShadow();
+            invalidateSnapshots();
+            renderer.releaseShadowGradient();
+            invalidate();
+        }
+    };
 
     private int state;
     private int lastState;
@@ -47,23 +76,9 @@ public class SwitchView extends View {
     private boolean isOpened;
 
     private int mWidth, mHeight;
-    private int actuallyDrawingAreaLeft;
-    private int actuallyDrawingAreaRight;
-    private int actuallyDrawingAreaTop;
-    private int actuallyDrawingAreaBottom;
 
-    private float sWidth, sHeight;
-    private float sLeft, sTop, sRight, sBottom;
-    private float sCenterX, sCenterY;
-    private float sScale;
-
-    private float bOffset;
-    private float bRadius, bStrokeWidth;
-    private float bWidth;
-    private float bLeft, bTop, bRight, bBottom;
-    private float bOnLeftX, bOn2LeftX, bOff2LeftX, bOffLeftX;
-
-    private float shadowReservedHeight;
+    // thumb translation per (lastState, state) transition and thumb stretch, sampled once per size
+    private boolean keyframeMode = true;
 
     public SwitchView(Context context) {
         this(context, null);
@@ -72,18 +87,22 @@ public class SwitchView extends View {
     @TargetApi(Build.VERSION_CODES.HONEYCOMB)
     public SwitchView(Context context, AttributeSet attrs) {
         super(context, attrs);
-        setLayerType(LAYER_TYPE_SOFTWARE, null);
 
         TypedArray a = context.obtainStyledAttributes(attrs, R.styleable.SwitchView);
-        colorPrimary = a.getColor(R.styleable.SwitchView_primaryColor, DEFAULT_COLOR_PRIMARY);
-        colorPrimaryDark = a.getColor(R.styleable.SwitchView_primaryColorDark, DEFAULT_COLOR_PRIMARY_DARK);
+        colorPrimary = a.getColor(R.styleable.SwitchView_primaryColor, SwitchViewRenderer.DEFAULT_COLOR_PRIMARY);
+        colorPrimaryDark = a.getColor(R.styleable.SwitchView_primaryColorDark, SwitchViewRenderer.DEFAULT_COLOR_PRIMARY_DARK);
         hasShadow = a.getBoolean(R.styleable.SwitchView_hasShadow, true);
         isOpened = a.getBoolean(R.styleable.SwitchView_isOpened, false);
+        boolean softwareLayer = a.getBoolean(R.styleable.SwitchView_useSoftwareLayer, false);
         state = isOpened ? STATE_SWITCH_ON : STATE_SWITCH_OFF;
         lastState = state;
         a.recycle();
+        if (softwareLayer) setUseSoftwareLayer(true);
+        CacheRegistry.install(context);
+        CacheRegistry.register(trimListener);
 
-        if (colorPrimary == DEFAULT_COLOR_PRIMARY && colorPrimaryDark == DEFAULT_COLOR_PRIMARY_DARK) {
+        if (colorPrimary == SwitchViewRenderer.DEFAULT_COLOR_PRIMARY
+                && colorPrimaryDark == SwitchViewRenderer.DEFAULT_COLOR_PRIMARY_DARK) {
             try {
                 if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
                     TypedValue primaryColorTypedValue = new TypedValue();
@@ -103,14 +122,77 @@ public class SwitchView extends View {
     public void setColor(int newColorPrimary, int newColorPrimaryDark) {
         colorPrimary = newColorPrimary;
         colorPrimaryDark = newColorPrimaryDark;
+        invalidateSnapshots();
         invalidate();
     }
 
     public void setShadow(boolean shadow) {
         hasShadow = shadow;
+        invalidateSnapshots();
+        invalidate();
+    }
+
+    /**
+     * Renders the switch into a software layer and draws the shadow with the original
+     * RadialGradient path fill. Off by default: the hardware path draws a pre-rendered
+     * shadow sprite instead.
+     */
+    @TargetApi(Build.VERSION_CODES.HONEYCOMB)
+    public void setUseSoftwareLayer(boolean useSoftwareLayer) {
+        this.useSoftwareLayer = useSoftwareLayer;
+        setLayerType(useSoftwareLayer ? LAYER_TYPE_SOFTWARE : LAYER_TYPE_NONE, null);
+        invalidateSnapshots();
+        invalidate();
+    }
+
+    public boolean isUseSoftwareLayer() {
+        return useSoftwareLayer;
+    }
+
+    /**
+     * Turns the idle snapshot off to measure drawing the rest pose directly.
+     */
+    void setIdleSnapshotEnabled(boolean idleSnapshotEnabled) {
+        this.idleSnapshotEnabled = idleSnapshotEnabled;
+        invalidateSnapshots();
         invalidate();
     }
 
+    /**
+     * Keyframe mode interpolates the thumb translation and stretch from tables sampled once
+     * per size and draws the thumb as a round rect, instead of rebuilding the thumb path on
+     * every frame. On by default; see {@link #getKeyframeMaxError()} for the accuracy bound.
+     */
+    public void setKeyframeMode(boolean keyframeMode) {
+        this.keyframeMode = keyframeMode;
+        invalidateSnapshots();
+        invalidate();
+    }
+
+    public boolean isKeyframeMode() {
+        return keyframeMode;
+    }
+
+    /**
+     * Sets how long a toggle animation lasts, independent of the display refresh rate.
+     */
+    public void setAnimationDuration(long durationMillis) {
+        sAnimation.setDuration(durationMillis);
+        bAnimation.setDuration(durationMillis);
+    }
+
+    public long getAnimationDuration() {
+        return bAnimation.getDuration();
+    }
+
+    /**
+     * Replaces the time source of the animation, e.g. with a manually stepped clock in tests.
+     */
+    public void setAnimationClock(AnimationClock clock) {
+        if (clock == null) throw new IllegalArgumentException("empty clock");
+        animationClock = clock;
+    }
+
     public boolean isOpened() {
         return isOpened;
     }
@@ -123,6 +205,21 @@ public class SwitchView extends View {
         refreshState(wishState);
     }
 
+    /**
+     * Jumps straight to the given state without animating, for batch updates from
+     * {@link SwitchGroup}. Must be called on the UI thread.
+     */
+    void applyOpenedState(boolean isOpened) {
+        sAnimation.end();
+        bAnimation.end();
+        AnimationTicker.getInstance().unregister(animationCallback);
+        int wishState = isOpened ? STATE_SWITCH_ON : STATE_SWITCH_OFF;
+        this.isOpened = isOpened;
+        lastState = wishState;
+        state = wishState;
+        invalidate();
+    }
+
     public void toggleSwitch(boolean isOpened) {
         int wishState = isOpened ? STATE_SWITCH_ON : STATE_SWITCH_OFF;
         if (wishState == state) {
@@ -130,9 +227,10 @@ public class SwitchView extends View {
         }
         if ((wishState == STATE_SWITCH_ON && (state == STATE_SWITCH_OFF || state == STATE_SWITCH_OFF2))
                 || (wishState == STATE_SWITCH_OFF && (state == STATE_SWITCH_ON || state == STATE_SWITCH_ON2))) {
-            sAnim = 1;
+            sAnimation.start(animationClock.now());
         }
-        bAnim = 1;
+        bAnimation.start(animationClock.now());
+        AnimationTicker.getInstance().register(animationCallback);
         refreshState(wishState);
     }
 
@@ -155,7 +253,7 @@ public class SwitchView extends View {
         if (widthMode == MeasureSpec.EXACTLY) {
             resultWidth = widthSize;
         } else {
-            resultWidth = (int) (56 * getResources().getDisplayMetrics().density + 0.5f)
+            resultWidth = (int) (SwitchViewRenderer.WIDTH_DEFAULT * getResources().getDisplayMetrics().density + 0.5f)
                     + getPaddingLeft() + getPaddingRight();
             if (widthMode == MeasureSpec.AT_MOST) {
                 resultWidth = Math.min(resultWidth, widthSize);
@@ -168,7 +266,8 @@ public class SwitchView extends View {
         if (heightMode == MeasureSpec.EXACTLY) {
             resultHeight = heightSize;
         } else {
-            int selfExpectedResultHeight = (int) (resultWidth * RATIO_ASPECT) + getPaddingTop() + getPaddingBottom();
+            int selfExpectedResultHeight = (int) (resultWidth * SwitchViewGeometry.RATIO_ASPECT)
+                    + getPaddingTop() + getPaddingBottom();
             resultHeight = selfExpectedResultHeight;
             if (heightMode == MeasureSpec.AT_MOST) {
                 resultHeight = Math.min(resultHeight, heightSize);
@@ -182,133 +281,98 @@ public class SwitchView extends View {
         super.onSizeChanged(w, h, oldw, oldh);
         mWidth = w;
         mHeight = h;
-        isCanVisibleDrawing = mWidth > getPaddingLeft() + getPaddingRight() && mHeight > getPaddingTop() + getPaddingBottom();
-
+        isCanVisibleDrawing = renderer.setBounds(getPaddingLeft(), getPaddingTop(),
+                w - getPaddingRight(), h - getPaddingBottom());
         if (isCanVisibleDrawing) {
-            int actuallyDrawingAreaWidth = mWidth - getPaddingLeft() - getPaddingRight();
-            int actuallyDrawingAreaHeight = mHeight - getPaddingTop() - getPaddingBottom();
-
-            if (actuallyDrawingAreaWidth * RATIO_ASPECT < actuallyDrawingAreaHeight) {
-                actuallyDrawingAreaLeft = getPaddingLeft();
-                actuallyDrawingAreaRight = mWidth - getPaddingRight();
-                int heightExtraSize = (int) (actuallyDrawingAreaHeight - actuallyDrawingAreaWidth * RATIO_ASPECT);
-                actuallyDrawingAreaTop = getPaddingTop() + heightExtraSize / 2;
-                actuallyDrawingAreaBottom = getHeight() - getPaddingBottom() - heightExtraSize / 2;
-            } else {
-                int widthExtraSize = (int) (actuallyDrawingAreaWidth - actuallyDrawingAreaHeight / RATIO_ASPECT);
-                actuallyDrawingAreaLeft = getPaddingLeft() + widthExtraSize / 2;
-                actuallyDrawingAreaRight = getWidth() - getPaddingRight() - widthExtraSize / 2;
-                actuallyDrawingAreaTop = getPaddingTop();
-                actuallyDrawingAreaBottom = getHeight() - getPaddingBottom();
-            }
+            releaseShadow();
+        }
+        invalidateSnapshots();
+    }
+
+    /**
+     * Largest difference in pixels between the keyframed thumb translation/stretch and the
+     * direct calculation, over every transition sampled at 256 points. Both are linear in the
+     * animation percent, so this stays at float rounding level (SwitchViewGeometryTest keeps
+     * it under 1e-3 px for several sizes); the round rect drawn in keyframe mode is the same
+     * outline as the two half arcs of the path mode.
+     */
+    public float getKeyframeMaxError() {
+        return geometry.getKeyframeMaxError(256);
+    }
 
-            shadowReservedHeight = (int) ((actuallyDrawingAreaBottom - actuallyDrawingAreaTop) * 0.09f);
-            sLeft = actuallyDrawingAreaLeft;
-            sTop = actuallyDrawingAreaTop + shadowReservedHeight;
-            sRight = actuallyDrawingAreaRight;
-            sBottom = actuallyDrawingAreaBottom - shadowReservedHeight;
-
-            sWidth = sRight - sLeft;
-            sHeight = sBottom - sTop;
-            sCenterX = (sRight + sLeft) / 2;
-            sCenterY = (sBottom + sTop) / 2;
-
-            bLeft = sLeft;
-            bTop = sTop;
-            bBottom = sBottom;
-            bWidth = sBottom - sTop;
-            bRight = sLeft + bWidth;
-            final float halfHeightOfS = bWidth / 2; // OfB
-            bRadius = halfHeightOfS * 0.95f;
-            bOffset = bRadius * 0.2f; // offset of switching
-            bStrokeWidth = (halfHeightOfS - bRadius) * 2;
-            bOnLeftX = sRight - bWidth;
-            bOn2LeftX = bOnLeftX - bOffset;
-            bOffLeftX = sLeft;
-            bOff2LeftX = bOffLeftX + bOffset;
-            sScale = 1 - bStrokeWidth / sHeight;
-
-            sPath.reset();
-            RectF sRectF = new RectF();
-            sRectF.top = sTop;
-            sRectF.bottom = sBottom;
-            sRectF.left = sLeft;
-            sRectF.right = sLeft + sHeight;
-            sPath.arcTo(sRectF, 90, 180);
-            sRectF.left = sRight - sHeight;
-            sRectF.right = sRight;
-            sPath.arcTo(sRectF, 270, 180);
-            sPath.close();
-
-            bRectF.left = bLeft;
-            bRectF.right = bRight;
-            bRectF.top = bTop + bStrokeWidth / 2;
-            bRectF.bottom = bBottom - bStrokeWidth / 2;
-            float bCenterX = (bRight + bLeft) / 2;
-            float bCenterY = (bBottom + bTop) / 2;
-
-            shadowGradient = new RadialGradient(bCenterX, bCenterY, bRadius, 0xff000000, 0x00000000, Shader.TileMode.CLAMP);
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        releaseShadow();
+        invalidateSnapshots();
+        sAnimation.end();
+        bAnimation.end();
+        AnimationTicker.getInstance().unregister(animationCallback);
+    }
+
+    /**
+     * The gradient reaches full transparency at bRadius and the bar path always contains
+     * that disc, so the shadow is the same gradient disc at every stretch of the bar and
+     * can be drawn from a sprite shared by all switches of the same size.
+     */
+    private Bitmap acquireShadow() {
+        if (shadowEntry == null) {
+            shadowEntry = ShadowAtlas.acquire(geometry.bRadius, getResources().getDisplayMetrics().densityDpi,
+                    SwitchViewRenderer.SHADOW_COLOR);
         }
+        return shadowEntry.bitmap;
     }
 
-    private void calcBPath(float percent) {
-        bPath.reset();
-        bRectF.left = bLeft + bStrokeWidth / 2;
-        bRectF.right = bRight - bStrokeWidth / 2;
-        bPath.arcTo(bRectF, 90, 180);
-        bRectF.left = bLeft + percent * bOffset + bStrokeWidth / 2;
-        bRectF.right = bRight + percent * bOffset - bStrokeWidth / 2;
-        bPath.arcTo(bRectF, 270, 180);
-        bPath.close();
-    }
-
-    private float calcBTranslate(float percent) {
-        float result = 0;
-        switch (state - lastState) {
-            case 1:
-                if (state == STATE_SWITCH_OFF2) {
-                    result = bOffLeftX; // off -> off2
-                } else if (state == STATE_SWITCH_ON) {
-                    result = bOnLeftX - (bOnLeftX - bOn2LeftX) * percent; // on2 -> on
-                }
-                break;
-            case 2:
-                if (state == STATE_SWITCH_ON) {
-                    result = bOnLeftX - (bOnLeftX - bOffLeftX) * percent; // off2 -> on
-                } else if (state == STATE_SWITCH_ON) {
-                    result = bOn2LeftX - (bOn2LeftX - bOffLeftX) * percent;  // off -> on2
-                }
-                break;
-            case 3:
-                result = bOnLeftX - (bOnLeftX - bOffLeftX) * percent; // off -> on
-                break;
-            case -1:
-                if (state == STATE_SWITCH_ON2) {
-                    result = bOn2LeftX + (bOnLeftX - bOn2LeftX) * percent; // on -> on2
-                } else if (state == STATE_SWITCH_OFF) {
-                    result = bOffLeftX;  // off2 -> off
-                }
-                break;
-            case -2:
-                if (state == STATE_SWITCH_OFF) {
-                    result = bOffLeftX + (bOn2LeftX - bOffLeftX) * percent;  // on2 -> off
-                } else if (state == STATE_SWITCH_OFF2) {
-                    result = bOff2LeftX + (bOnLeftX - bOff2LeftX) * percent;  // on -> off2
-                }
-                break;
-            case -3:
-                result = bOffLeftX + (bOnLeftX - bOffLeftX) * percent;  // on -> off
-                break;
-            default: // init
-            case 0:
-                if (state == STATE_SWITCH_OFF) {
-                    result = bOffLeftX; //  off -> off
-                } else if (state == STATE_SWITCH_ON) {
-                    result = bOnLeftX; // on -> on
-                }
-                break;
+    private void releaseShadow() {
+        if (shadowEntry != null) {
+            ShadowAtlas.release(shadowEntry);
+            shadowEntry = null;
         }
-        return result - bOffLeftX;
+    }
+
+    /**
+     * At rest (both animations at 0, state ON or OFF) the frame only depends on the size,
+     * paddings, colors, shadow and draw mode, never on the previous state, so it is drawn
+     * once into a bitmap and blitted from then on. Identical switches share the bitmap.
+     * Only used on software canvases (software windows, the software layer, view.draw into
+     * a bitmap), where every redraw of a dirty region overlapping the switch runs onDraw
+     * and rasterizes the paths and shadow again. A hardware canvas never redraws an idle
+     * switch: its display list is replayed as is until the switch invalidates, and that
+     * only happens when the pose changes, so a snapshot would just add a texture upload.
+     * SwitchSnapshotBenchmark measures the software gain.
+     */
+    private Bitmap getIdleSnapshot() {
+        final boolean isOn = state == STATE_SWITCH_ON;
+        Bitmap snapshot = isOn ? snapshotOn : snapshotOff;
+        if (snapshot == null) {
+            final String key = snapshotKey(isOn);
+            final BitmapCache cache = BitmapCache.getInstance();
+            snapshot = cache.get(key);
+            if (snapshot == null) {
+                snapshot = Bitmap.createBitmap(mWidth, mHeight, Bitmap.Config.ARGB_8888);
+                drawSwitch(new Canvas(snapshot), 0, 0);
+                cache.put(key, snapshot);
+            }
+            if (isOn) {
+                snapshotOn = snapshot;
+            } else {
+                snapshotOff = snapshot;
+            }
+        }
+        return snapshot;
+    }
+
+    private String snapshotKey(boolean isOn) {
+        return "SwitchView:" + mWidth + "x" + mHeight
+                + ":" + getPaddingLeft() + "," + getPaddingTop() + "," + getPaddingRight() + "," + getPaddingBottom()
+                + ":" + Integer.toHexString(colorPrimary) + "," + Integer.toHexString(colorPrimaryDark)
+                + ":" + (hasShadow ? 1 : 0) + (useSoftwareLayer ? 1 : 0) + (keyframeMode ? 1 : 0)
+                + ":" + (isOn ? "on" : "off");
+    }
+
+    private void invalidateSnapshots() {
+        snapshotOn = null;
+        snapshotOff = null;
     }
 
     @Override
@@ -316,65 +380,53 @@ public class SwitchView extends View {
         super.onDraw(canvas);
         if (!isCanVisibleDrawing) return;
 
-        paint.setAntiAlias(true);
-        final boolean isOn = (state == STATE_SWITCH_ON || state == STATE_SWITCH_ON2);
-        // Draw background
-        paint.setStyle(Paint.Style.FILL);
-        paint.setColor(isOn ? colorPrimary : 0xffE3E3E3);
-        canvas.drawPath(sPath, paint);
-
-        sAnim = sAnim - ANIMATION_SPEED > 0 ? sAnim - ANIMATION_SPEED : 0;
-        bAnim = bAnim - ANIMATION_SPEED > 0 ? bAnim - ANIMATION_SPEED : 0;
+        final long frameTime = animationClock.now();
+        final float sAnim = sAnimation.update(frameTime);
+        final float bAnim = bAnimation.update(frameTime);
+        if (sAnim == 0 && bAnim == 0 && (state == STATE_SWITCH_ON || state == STATE_SWITCH_OFF)
+                && idleSnapshotEnabled && !canvas.isHardwareAccelerated()) {
+            canvas.drawBitmap(getIdleSnapshot(), 0, 0, null);
+            return;
+        }
+        drawSwitch(canvas, sAnim, bAnim);
+    }
 
+    private void drawSwitch(Canvas canvas, float sAnim, float bAnim) {
+        final boolean isOn = (state == STATE_SWITCH_ON || state == STATE_SWITCH_ON2);
         final float dsAnim = interpolator.getInterpolation(sAnim);
         final float dbAnim = interpolator.getInterpolation(bAnim);
-        // Draw background animation
-        final float scale = sScale * (isOn ? dsAnim : 1 - dsAnim);
-        final float scaleOffset = (sRight - sCenterX - bRadius) * (isOn ? 1 - dsAnim : dsAnim);
-        canvas.save();
-        canvas.scale(scale, scale, sCenterX + scaleOffset, sCenterY);
-        paint.setColor(0xFFFFFFFF);
-        canvas.drawPath(sPath, paint);
-        canvas.restore();
-        // To prepare center bar path
-        canvas.save();
-        canvas.translate(calcBTranslate(dbAnim), shadowReservedHeight);
+        // Draw background and background animation
+        renderer.drawTrack(canvas, paint, isOn, colorPrimary, isOn ? 1 - dsAnim : dsAnim);
+        // Draw center bar with its shadow
         final boolean isState2 = (state == STATE_SWITCH_ON2 || state == STATE_SWITCH_OFF2);
-        calcBPath(isState2 ? 1 - dbAnim : dbAnim);
-        // Use center bar path to draw shadow
-        if (hasShadow) {
-            paint.setStyle(Paint.Style.FILL);
-            paint.setColor(0xFF333333);
-            paint.setShader(shadowGradient);
-            canvas.drawPath(bPath, paint);
-            paint.setShader(null);
+        final float stretchPercent = isState2 ? 1 - dbAnim : dbAnim;
+        final float translate;
+        final float stretch;
+        if (keyframeMode) {
+            translate = geometry.keyframeTranslate(lastState, state, dbAnim);
+            stretch = geometry.keyframeStretch(stretchPercent);
+        } else {
+            translate = geometry.calcBTranslate(state, lastState, dbAnim);
+            stretch = geometry.calcBStretch(stretchPercent);
         }
-        canvas.translate(0, -shadowReservedHeight);
-        // draw bar
-        canvas.scale(0.98f, 0.98f, bWidth / 2, bWidth / 2);
-        paint.setStyle(Paint.Style.FILL);
-        paint.setColor(0xffffffff);
-        canvas.drawPath(bPath, paint);
-        paint.setStyle(Paint.Style.STROKE);
-        paint.setStrokeWidth(bStrokeWidth * 0.5f);
-        paint.setColor(isOn ? colorPrimaryDark : 0xFFBFBFBF);
-        canvas.drawPath(bPath, paint);
-        canvas.restore();
+        final Bitmap shadowSprite = hasShadow && !useSoftwareLayer ? acquireShadow() : null;
+        renderer.drawThumb(canvas, paint, translate, stretch, !keyframeMode,
+                isOn ? colorPrimaryDark : SwitchViewRenderer.COLOR_OFF_DARK, hasShadow, shadowSprite);
 
         paint.reset();
-        if (sAnim > 0 || bAnim > 0) invalidate();
     }
 
     @Override
     public boolean onTouchEvent(MotionEvent event) {
-        if ((state == STATE_SWITCH_ON || state == STATE_SWITCH_OFF) && (sAnim * bAnim == 0)) {
+        if ((state == STATE_SWITCH_ON || state == STATE_SWITCH_OFF) && (sAnimation.getValue() * bAnimation.getValue() == 0)) {
             switch (event.getAction()) {
                 case MotionEvent.ACTION_DOWN:
                     return true;
                 case MotionEvent.ACTION_UP:
                     lastState = state;
 
-                    bAnim = 1;
+                    bAnimation.start(animationClock.now());
+                    AnimationTicker.getInstance().register(animationCallback);
                     if (state == STATE_SWITCH_OFF) {
                         refreshState(STATE_SWITCH_OFF2);
                         listener.toggleToOn(this);
@@ -0,0 +1,211 @@
+package com.duke.switchbutton_test;
+
+/**
+ * Pure-Java geometry of the SwitchView style, shared by {@link SwitchView} and
+ * {@link SwitchDrawable} through {@link SwitchViewRenderer}: track and thumb bounds for a
+ * drawing area, the thumb translation of every (lastState, state) transition, and the
+ * keyframe tables sampled from it once per size.
+ */
+final class SwitchViewGeometry {
+    static final int STATE_SWITCH_ON = 4; // you change value you die
+    static final int STATE_SWITCH_ON2 = 3;
+    static final int STATE_SWITCH_OFF2 = 2;
+    static final int STATE_SWITCH_OFF = 1;
+    static final float RATIO_ASPECT = 0.68f;
+    static final int KEYFRAME_COUNT = 16; // samples per transition, plus the end point
+
+    float sLeft, sTop, sRight, sBottom;
+    float sWidth, sHeight;
+    float sCenterX, sCenterY;
+    float sScale;
+
+    float bOffset;
+    float bRadius, bStrokeWidth;
+    float bWidth;
+    float bLeft, bTop, bRight, bBottom;
+    float bCenterX, bCenterY;
+    float bOnLeftX, bOn2LeftX, bOff2LeftX, bOffLeftX;
+
+    float shadowReservedHeight;
+
+    // thumb translation per (lastState, state) transition and thumb stretch, sampled once per size
+    private final float[] bTranslateKeyframes = new float[16 * (KEYFRAME_COUNT + 1)];
+    private final float[] bStretchKeyframes = new float[KEYFRAME_COUNT + 1];
+
+    /**
+     * Lays the switch out in the given area (view bounds minus padding), keeping the aspect
+     * ratio and centering it. Returns false when the area is empty and nothing can be drawn.
+     */
+    boolean setBounds(int left, int top, int right, int bottom) {
+        if (right <= left || bottom <= top) {
+            return false;
+        }
+        final int actuallyDrawingAreaWidth = right - left;
+        final int actuallyDrawingAreaHeight = bottom - top;
+        final int actuallyDrawingAreaLeft;
+        final int actuallyDrawingAreaRight;
+        final int actuallyDrawingAreaTop;
+        final int actuallyDrawingAreaBottom;
+        if (actuallyDrawingAreaWidth * RATIO_ASPECT < actuallyDrawingAreaHeight) {
+            actuallyDrawingAreaLeft = left;
+            actuallyDrawingAreaRight = right;
+            int heightExtraSize = (int) (actuallyDrawingAreaHeight - actuallyDrawingAreaWidth * RATIO_ASPECT);
+            actuallyDrawingAreaTop = top + heightExtraSize / 2;
+            actuallyDrawingAreaBottom = bottom - heightExtraSize / 2;
+        } else {
+            int widthExtraSize = (int) (actuallyDrawingAreaWidth - actuallyDrawingAreaHeight / RATIO_ASPECT);
+            actuallyDrawingAreaLeft = left + widthExtraSize / 2;
+            actuallyDrawingAreaRight = right - widthExtraSize / 2;
+            actuallyDrawingAreaTop = top;
+            actuallyDrawingAreaBottom = bottom;
+        }
+
+        shadowReservedHeight = (int) ((actuallyDrawingAreaBottom - actuallyDrawingAreaTop) * 0.09f);
+        sLeft = actuallyDrawingAreaLeft;
+        sTop = actuallyDrawingAreaTop + shadowReservedHeight;
+        sRight = actuallyDrawingAreaRight;
+        sBottom = actuallyDrawingAreaBottom - shadowReservedHeight;
+
+        sWidth = sRight - sLeft;
+        sHeight = sBottom - sTop;
+        sCenterX = (sRight + sLeft) / 2;
+        sCenterY = (sBottom + sTop) / 2;
+
+        bLeft = sLeft;
+        bTop = sTop;
+        bBottom = sBottom;
+        bWidth = sBottom - sTop;
+        bRight = sLeft + bWidth;
+        final float halfHeightOfS = bWidth / 2; // OfB
+        bRadius = halfHeightOfS * 0.95f;
+        bOffset = bRadius * 0.2f; // offset of switching
+        bStrokeWidth = (halfHeightOfS - bRadius) * 2;
+        bOnLeftX = sRight - bWidth;
+        bOn2LeftX = bOnLeftX - bOffset;
+        bOffLeftX = sLeft;
+        bOff2LeftX = bOffLeftX + bOffset;
+        sScale = 1 - bStrokeWidth / sHeight;
+        bCenterX = (bRight + bLeft) / 2;
+        bCenterY = (bBottom + bTop) / 2;
+
+        sampleKeyframes();
+        return true;
+    }
+
+    /**
+     * Thumb translation from the off position for the transition lastState -> state.
+     */
+    float calcBTranslate(int state, int lastState, float percent) {
+        float result = 0;
+        switch (state - lastState) {
+            case 1:
+                if (state == STATE_SWITCH_OFF2) {
+                    result = bOffLeftX; // off -> off2
+                } else if (state == STATE_SWITCH_ON) {
+                    result = bOnLeftX - (bOnLeftX - bOn2LeftX) * percent; // on2 -> on
+                }
+                break;
+            case 2:
+                if (state == STATE_SWITCH_ON) {
+                    result = bOnLeftX - (bOnLeftX - bOffLeftX) * percent; // off2 -> on
+                } else if (state == STATE_SWITCH_ON) {
+                    result = bOn2LeftX - (bOn2LeftX - bOffLeftX) * percent;  // off -> on2
+                }
+                break;
+            case 3:
+                result = bOnLeftX - (bOnLeftX - bOffLeftX) * percent; // off -> on
+                break;
+            case -1:
+                if (state == STATE_SWITCH_ON2) {
+                    result = bOn2LeftX + (bOnLeftX - bOn2LeftX) * percent; // on -> on2
+                } else if (state == STATE_SWITCH_OFF) {
+                    result = bOffLeftX;  // off2 -> off
+                }
+                break;
+            case -2:
+                if (state == STATE_SWITCH_OFF) {
+                    result = bOffLeftX + (bOn2LeftX - bOffLeftX) * percent;  // on2 -> off
+                } else if (state == STATE_SWITCH_OFF2) {
+                    result = bOff2LeftX + (bOnLeftX - bOff2LeftX) * percent;  // on -> off2
+                }
+                break;
+            case -3:
+                result = bOffLeftX + (bOnLeftX - bOffLeftX) * percent;  // on -> off
+                break;
+            default: // init
+            case 0:
+                if (state == STATE_SWITCH_OFF) {
+                    result = bOffLeftX; //  off -> off
+                } else if (state == STATE_SWITCH_ON) {
+                    result = bOnLeftX; // on -> on
+                }
+                break;
+        }
+        return result - bOffLeftX;
+    }
+
+    /**
+     * Thumb stretch to the right: 0 for a round thumb, bOffset when fully stretched.
+     */
+    float calcBStretch(float percent) {
+        return percent * bOffset;
+    }
+
+    /**
+     * Thumb translation from the off position for a resting position between off (0) and on (1).
+     */
+    float translateAt(float position) {
+        return (bOnLeftX - bOffLeftX) * position;
+    }
+
+    float keyframeTranslate(int lastState, int state, float percent) {
+        return interpolateKeyframes(bTranslateKeyframes, keyframeOffset(lastState, state), percent);
+    }
+
+    float keyframeStretch(float percent) {
+        return interpolateKeyframes(bStretchKeyframes, 0, percent);
+    }
+
+    private void sampleKeyframes() {
+        for (int i = 0; i <= KEYFRAME_COUNT; i++) {
+            final float percent = (float) i / KEYFRAME_COUNT;
+            bStretchKeyframes[i] = calcBStretch(percent);
+            for (int from = STATE_SWITCH_OFF; from <= STATE_SWITCH_ON; from++) {
+                for (int to = STATE_SWITCH_OFF; to <= STATE_SWITCH_ON; to++) {
+                    bTranslateKeyframes[keyframeOffset(from, to) + i] = calcBTranslate(to, from, percent);
+                }
+            }
+        }
+    }
+
+    private static int keyframeOffset(int fromState, int toState) {
+        return ((fromState - 1) * 4 + (toState - 1)) * (KEYFRAME_COUNT + 1);
+    }
+
+    private static float interpolateKeyframes(float[] frames, int offset, float percent) {
+        final float position = Math.max(0, Math.min(1, percent)) * KEYFRAME_COUNT;
+        final int index = Math.min((int) position, KEYFRAME_COUNT - 1);
+        final float fraction = position - index;
+        final float start = frames[offset + index];
+        return start + (frames[offset + index + 1] - start) * fraction;
+    }
+
+    /**
+     * Largest difference in pixels between the keyframed thumb translation/stretch and the
+     * direct calculation, over every transition sampled at the given number of points.
+     */
+    float getKeyframeMaxError(int samples) {
+        float maxError = 0;
+        for (int i = 0; i <= samples; i++) {
+            final float percent = (float) i / samples;
+            maxError = Math.max(maxError, Math.abs(keyframeStretch(percent) - calcBStretch(percent)));
+            for (int from = STATE_SWITCH_OFF; from <= STATE_SWITCH_ON; from++) {
+                for (int to = STATE_SWITCH_OFF; to <= STATE_SWITCH_ON; to++) {
+                    maxError = Math.max(maxError,
+                            Math.abs(keyframeTranslate(from, to, percent) - calcBTranslate(to, from, percent)));
+                }
+            }
+        }
+        return maxError;
+    }
+}
@@ -0,0 +1,145 @@
+package com.duke.switchbutton_test;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.RadialGradient;
+import android.graphics.RectF;
+import android.graphics.Shader;
+
+/**
+ * Draws the SwitchView style for {@link SwitchView} and {@link SwitchDrawable}. Holds the
+ * default colors and sizes of the style, the geometry and the paths built from it; the
+ * caller supplies the paint and decides where the thumb is, so animation and touch state
+ * stay in the view.
+ */
+final class SwitchViewRenderer {
+    static final int DEFAULT_COLOR_PRIMARY = 0xFF4BD763;
+    static final int DEFAULT_COLOR_PRIMARY_DARK = 0xFF3AC652;
+    static final int COLOR_OFF = 0xffE3E3E3;
+    static final int COLOR_OFF_DARK = 0xFFBFBFBF;
+    static final int SHADOW_COLOR = 0xff000000;
+    static final int WIDTH_DEFAULT = 56; // dp
+
+    final SwitchViewGeometry geometry = new SwitchViewGeometry();
+    private final Path sPath = new Path();
+    private final Path bPath = new Path();
+    private final RectF bRectF = new RectF();
+    private final Paint shadowPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+    private RadialGradient shadowGradient;
+
+    /**
+     * Lays the switch out in the given area. Returns false when nothing can be drawn.
+     */
+    boolean setBounds(int left, int top, int right, int bottom) {
+        if (!geometry.setBounds(left, top, right, bottom)) {
+            return false;
+        }
+        final SwitchViewGeometry g = geometry;
+        sPath.reset();
+        RectF sRectF = new RectF();
+        sRectF.top = g.sTop;
+        sRectF.bottom = g.sBottom;
+        sRectF.left = g.sLeft;
+        sRectF.right = g.sLeft + g.sHeight;
+        sPath.arcTo(sRectF, 90, 180);
+        sRectF.left = g.sRight - g.sHeight;
+        sRectF.right = g.sRight;
+        sPath.arcTo(sRectF, 270, 180);
+        sPath.close();
+
+        bRectF.top = g.bTop + g.bStrokeWidth / 2;
+        bRectF.bottom = g.bBottom - g.bStrokeWidth / 2;
+        shadowGradient = null;
+        return true;
+    }
+
+    /**
+     * Drops the lazily created shadow gradient; it is rebuilt on the next gradient shadow draw.
+     */
+    void releaseShadowGradient() {
+        shadowGradient = null;
+    }
+
+    /**
+     * Draws the track: the background in the on/off color and the white inner part, which
+     * shrinks towards the thumb as innerFraction goes from 0 (fully white) to 1 (gone).
+     */
+    void drawTrack(Canvas canvas, Paint paint, boolean isOn, int colorOn, float innerFraction) {
+        final SwitchViewGeometry g = geometry;
+        paint.setAntiAlias(true);
+        paint.setStyle(Paint.Style.FILL);
+        paint.setColor(isOn ? colorOn : COLOR_OFF);
+        canvas.drawPath(sPath, paint);
+
+        final float scale = g.sScale * (1 - innerFraction);
+        final float scaleOffset = (g.sRight - g.sCenterX - g.bRadius) * innerFraction;
+        canvas.save();
+        canvas.scale(scale, scale, g.sCenterX + scaleOffset, g.sCenterY);
+        paint.setColor(0xFFFFFFFF);
+        canvas.drawPath(sPath, paint);
+        canvas.restore();
+    }
+
+    /**
+     * Draws the thumb moved by translate from the off position and stretched to the right by
+     * stretch. asPath rebuilds the outline from two half arcs, otherwise it is drawn as the
+     * equivalent round rect. The shadow comes from shadowSprite when given, else from the
+     * radial gradient filling the thumb outline.
+     */
+    void drawThumb(Canvas canvas, Paint paint, float translate, float stretch, boolean asPath,
+                   int strokeColor, boolean hasShadow, Bitmap shadowSprite) {
+        final SwitchViewGeometry g = geometry;
+        canvas.save();
+        canvas.translate(translate, g.shadowReservedHeight);
+        if (asPath) {
+            bPath.reset();
+            bRectF.left = g.bLeft + g.bStrokeWidth / 2;
+            bRectF.right = g.bRight - g.bStrokeWidth / 2;
+            bPath.arcTo(bRectF, 90, 180);
+            bRectF.left = g.bLeft + stretch + g.bStrokeWidth / 2;
+            bRectF.right = g.bRight + stretch - g.bStrokeWidth / 2;
+            bPath.arcTo(bRectF, 270, 180);
+            bPath.close();
+        } else {
+            bRectF.left = g.bLeft + g.bStrokeWidth / 2;
+            bRectF.right = g.bRight - g.bStrokeWidth / 2 + stretch;
+        }
+        if (hasShadow) {
+            if (shadowSprite != null) {
+                canvas.drawBitmap(shadowSprite, g.bCenterX - shadowSprite.getWidth() / 2f,
+                        g.bCenterY - shadowSprite.getHeight() / 2f, shadowPaint);
+            } else {
+                paint.setStyle(Paint.Style.FILL);
+                paint.setColor(0xFF333333);
+                if (shadowGradient == null) {
+                    shadowGradient = new RadialGradient(g.bCenterX, g.bCenterY, g.bRadius,
+                            SHADOW_COLOR, 0x00000000, Shader.TileMode.CLAMP);
+                }
+                paint.setShader(shadowGradient);
+                drawBar(canvas, paint, asPath);
+                paint.setShader(null);
+            }
+        }
+        canvas.translate(0, -g.shadowReservedHeight);
+        canvas.scale(0.98f, 0.98f, g.bWidth / 2, g.bWidth / 2);
+        paint.setStyle(Paint.Style.FILL);
+        paint.setColor(0xffffffff);
+        drawBar(canvas, paint, asPath);
+        paint.setStyle(Paint.Style.STROKE);
+        paint.setStrokeWidth(g.bStrokeWidth * 0.5f);
+        paint.setColor(strokeColor);
+        drawBar(canvas, paint, asPath);
+        canvas.restore();
+    }
+
+    private void drawBar(Canvas canvas, Paint paint, boolean asPath) {
+        if (asPath) {
+            canvas.drawPath(bPath, paint);
+        } else {
+            final float cornerRadius = bRectF.height() / 2;
+            canvas.drawRoundRect(bRectF, cornerRadius, cornerRadius, paint);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.duke.switchbutton_test;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * FrameAnimation按帧时间步进测试(本地JVM运行)
+ */
+public class FrameAnimationTest {
+
+    /**
+     * 手动步进的时钟
+     */
+    private static class SteppedClock implements AnimationClock {
+        long time;
+
+        @Override
+        public long now() {
+            return time;
+        }
+    }
+
+    private static long runToEnd(long frameIntervalMillis) {
+        SteppedClock clock = new SteppedClock();
+        FrameAnimation animation = new FrameAnimation(160);
+        animation.start(clock.now());
+        while (animation.update(clock.now()) > 0) {
+            clock.time += frameIntervalMillis;
+        }
+        return clock.time;
+    }
+
+    @Test
+    public void duration_isIndependentOfRefreshRate() throws Exception {
+        //60Hz与120Hz下动画时长一致
+        assertEquals(runToEnd(16), runToEnd(8), 16);
+        assertTrue(runToEnd(8) >= 160);
+    }
+
+    @Test
+    public void droppedFrames_doNotStretchAnimation() throws Exception {
+        FrameAnimation animation = new FrameAnimation(100);
+        animation.start(0);
+        assertEquals(0.5f, animation.update(50), 1e-6f);
+        //跳过多帧后直接结束
+        assertEquals(0f, animation.update(250), 0f);
+        assertFalse(animation.isRunning());
+    }
+
+    @Test
+    public void zeroDuration_endsImmediately() throws Exception {
+        FrameAnimation animation = new FrameAnimation(0);
+        animation.start(10);
+        assertEquals(1f, animation.getValue(), 0f);
+        assertEquals(0f, animation.update(10), 0f);
+    }
+}
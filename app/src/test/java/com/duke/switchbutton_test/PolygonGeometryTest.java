@@ -0,0 +1,93 @@
+package com.duke.switchbutton_test;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * PolygonGeometry顶点计算测试(本地JVM运行)
+ */
+public class PolygonGeometryTest {
+    private static final float DELTA = 1e-3f;
+
+    @Test
+    public void pentagonTop_matchesLegacyVertices() throws Exception {
+        float[] out = new float[10];
+        float r = 100;
+        assertEquals(10, PolygonGeometry.writePolygon(5, 0, 0, r, PolygonGeometry.ROTATION_TOP, out));
+        //点1
+        assertEquals(0, out[0], DELTA);
+        assertEquals(-r, out[1], DELTA);
+        //点2
+        assertEquals(Math.cos(Math.toRadians(18)) * r, out[2], DELTA);
+        assertEquals(-Math.sin(Math.toRadians(18)) * r, out[3], DELTA);
+        //点3
+        assertEquals(Math.sin(Math.toRadians(36)) * r, out[4], DELTA);
+        assertEquals(Math.cos(Math.toRadians(36)) * r, out[5], DELTA);
+    }
+
+    @Test
+    public void hexagonRight_matchesLegacyVertices() throws Exception {
+        float[] out = new float[12];
+        float r = 50;
+        PolygonGeometry.writePolygon(6, 10, 20, r, PolygonGeometry.ROTATION_RIGHT, out);
+        assertEquals(10 + r, out[0], DELTA);
+        assertEquals(20, out[1], DELTA);
+        assertEquals(10 + Math.sin(Math.toRadians(30)) * r, out[2], DELTA);
+        assertEquals(20 + Math.cos(Math.toRadians(30)) * r, out[3], DELTA);
+    }
+
+    @Test
+    public void star_innerVerticesLieOnPentagramEdges() throws Exception {
+        float[] out = new float[20];
+        float r = 100;
+        float inner = PolygonGeometry.regularStarInnerRadius(5, r);
+        assertEquals(20, PolygonGeometry.writeStar(5, 0, 0, r, inner, PolygonGeometry.ROTATION_TOP, out));
+        //内顶点(索引1)应在外顶点0与外顶点2的连线上
+        float x0 = out[0], y0 = out[1], x2 = out[8], y2 = out[9];
+        float xi = out[2], yi = out[3];
+        float cross = (x2 - x0) * (yi - y0) - (y2 - y0) * (xi - x0);
+        assertEquals(0, cross, 0.5f);
+    }
+
+    @Test
+    public void heartSegmentCount_growsWithSize() throws Exception {
+        int thumbnail = PolygonGeometry.heartSegmentCount(72);
+        int fullScreen = PolygonGeometry.heartSegmentCount(1080);
+        assertTrue(thumbnail < fullScreen);
+        assertEquals(0, thumbnail % 2);
+        assertEquals(0, fullScreen % 2);
+        assertEquals(PolygonGeometry.HEART_SEGMENTS_MIN, PolygonGeometry.heartSegmentCount(0));
+        assertEquals(PolygonGeometry.HEART_SEGMENTS_MAX, PolygonGeometry.heartSegmentCount(100000));
+    }
+
+    @Test
+    public void heart_fillsTargetRectWithCuspAndTipOnCenterLine() throws Exception {
+        int segments = 64;
+        float[] out = new float[segments * 2];
+        assertEquals(segments * 2, PolygonGeometry.writeHeart(segments, 10, 20, 200, 100, out));
+        float minX = Float.MAX_VALUE, maxX = -Float.MAX_VALUE, minY = Float.MAX_VALUE, maxY = -Float.MAX_VALUE;
+        for (int i = 0; i < out.length; i += 2) {
+            minX = Math.min(minX, out[i]);
+            maxX = Math.max(maxX, out[i]);
+            minY = Math.min(minY, out[i + 1]);
+            maxY = Math.max(maxY, out[i + 1]);
+        }
+        assertEquals(10, minX, 0.5f);
+        assertEquals(210, maxX, 0.5f);
+        assertEquals(20, minY, 0.5f);
+        assertEquals(120, maxY, DELTA);
+        //上方凹点
+        assertEquals(110, out[0], DELTA);
+        assertTrue(out[1] > 20 && out[1] < 70);
+        //下方尖点
+        assertEquals(110, out[segments], DELTA);
+        assertEquals(120, out[segments + 1], DELTA);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void smallBuffer_throws() throws Exception {
+        PolygonGeometry.writePolygon(6, 0, 0, 1, 0, new float[11]);
+    }
+}
@@ -0,0 +1,44 @@
+package com.duke.switchbutton_test;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * ShapeHitGrid命中测试(本地JVM运行)
+ */
+public class ShapeHitGridTest {
+
+    @Test
+    public void fromAlpha_mapsViewCoordinatesToCells() throws Exception {
+        //4x2网格覆盖200x100，每行有2字节填充
+        byte[] alpha = {
+                0, 1, 0, 0, 9, 9,
+                0, 0, 0, (byte) 255, 9, 9,
+        };
+        ShapeHitGrid grid = ShapeHitGrid.fromAlpha(alpha, 6, 4, 2, 200, 100);
+        assertTrue(grid.contains(50, 0));
+        assertTrue(grid.contains(99.9f, 49.9f));
+        assertFalse(grid.contains(100, 49.9f));
+        assertFalse(grid.contains(10, 10));
+        assertTrue(grid.contains(199.9f, 99.9f));
+        assertFalse(grid.contains(100, 99));
+    }
+
+    @Test
+    public void contains_outsideBoundsIsMiss() throws Exception {
+        ShapeHitGrid grid = new ShapeHitGrid(2, 2, 10, 10);
+        grid.set(0, 0);
+        grid.set(1, 1);
+        assertTrue(grid.contains(0, 0));
+        assertFalse(grid.contains(-0.1f, 0));
+        assertFalse(grid.contains(0, 10));
+        assertFalse(grid.contains(Float.NaN, 1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void fromAlpha_rejectsShortBuffer() throws Exception {
+        ShapeHitGrid.fromAlpha(new byte[3], 2, 2, 2, 10, 10);
+    }
+}
@@ -0,0 +1,94 @@
+package com.duke.switchbutton_test;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * SvgPathData解析、归一化测试(本地JVM运行)
+ */
+public class SvgPathDataTest {
+    private static final float DELTA = 1e-4f;
+
+    @Test
+    public void parse_normalizesAbsoluteAndRelativeCommands() throws Exception {
+        //同一个三角形，绝对坐标与相对坐标(含隐式lineTo、紧凑数字写法)
+        SvgPathData absolute = SvgPathData.parse("M10,20 L30,20 L20,40 Z");
+        SvgPathData relative = SvgPathData.parse("m10 20 20-0-10 20z");
+        float[] expected = {0, 0, 1, 0, 0.5f, 1};
+        assertArrayEquals(expected, absolute.getPoints(), DELTA);
+        assertArrayEquals(expected, relative.getPoints(), DELTA);
+        assertEquals(4, relative.getVerbCount());
+        assertEquals(SvgPathData.VERB_MOVE, relative.getVerb(0));
+        assertEquals(SvgPathData.VERB_LINE, relative.getVerb(1));
+        assertEquals(SvgPathData.VERB_LINE, relative.getVerb(2));
+        assertEquals(SvgPathData.VERB_CLOSE, relative.getVerb(3));
+        assertEquals(1f, absolute.getAspectRatio(), DELTA);
+    }
+
+    @Test
+    public void parse_horizontalVerticalAndSmoothCurves() throws Exception {
+        SvgPathData data = SvgPathData.parse("M0 0H4V2h-4v-2zM0 0Q2 0 2 1T4 2C4 3 3 4 2 4S0 3 0 2");
+        assertEquals(SvgPathData.VERB_LINE, data.getVerb(1));
+        assertEquals(SvgPathData.VERB_QUAD, data.getVerb(7));
+        assertEquals(SvgPathData.VERB_QUAD, data.getVerb(8));
+        assertEquals(SvgPathData.VERB_CUBIC, data.getVerb(10));
+        assertEquals(1f, data.getAspectRatio(), DELTA);
+        //T的控制点为上一个控制点(2,0)关于(2,1)的反射(2,2)，归一化后为(0.5,0.5)
+        float[] points = data.getPoints();
+        int quadIndex = 0;
+        for (int i = 0; i < 8; i++) {
+            quadIndex += SvgPathData.pointCountOf(data.getVerb(i)) * 2;
+        }
+        assertEquals(0.5f, points[quadIndex], DELTA);
+        assertEquals(0.5f, points[quadIndex + 1], DELTA);
+    }
+
+    @Test
+    public void parse_arcBecomesCubicsWithTightBounds() throws Exception {
+        //两段半圆组成整圆，外接矩形为圆本身
+        SvgPathData circle = SvgPathData.parse("M0,50 a50,50 0 1,0 100,0 a50,50 0 1,0 -100,0z");
+        assertEquals(1f, circle.getAspectRatio(), DELTA);
+        for (int i = 1; i < circle.getVerbCount() - 1; i++) {
+            assertEquals(SvgPathData.VERB_CUBIC, circle.getVerb(i));
+        }
+        //每段不超过90度：整圆4段
+        assertEquals(6, circle.getVerbCount());
+        float[] points = circle.getPoints();
+        assertEquals(0f, points[0], DELTA);
+        assertEquals(0.5f, points[1], DELTA);
+    }
+
+    @Test
+    public void parse_controlPointsOutsideCurveDoNotWidenBounds() throws Exception {
+        //控制点在y=-10，曲线最高点只到y=-7.5：外接矩形10x7.5
+        SvgPathData data = SvgPathData.parse("M0,0 C0,-10 10,-10 10,0 Z");
+        assertEquals(4f / 3f, data.getAspectRatio(), DELTA);
+        float[] points = data.getPoints();
+        //起点在外接矩形底边
+        assertEquals(0f, points[0], DELTA);
+        assertEquals(1f, points[1], DELTA);
+    }
+
+    @Test
+    public void parse_arcFlagsWithoutSeparators() throws Exception {
+        SvgPathData data = SvgPathData.parse("M0 0a1 1 0 00 2 0l0 1z");
+        assertEquals(SvgPathData.VERB_CUBIC, data.getVerb(1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parse_rejectsMissingMoveTo() throws Exception {
+        SvgPathData.parse("L10 10");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parse_rejectsEmptyBounds() throws Exception {
+        SvgPathData.parse("M0 0 L10 0");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parse_rejectsMalformedNumber() throws Exception {
+        SvgPathData.parse("M0 0 L10 x");
+    }
+}
@@ -0,0 +1,69 @@
+package com.duke.switchbutton_test;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * SwitchView关键帧插值与直接计算的误差测试(本地JVM运行)
+ */
+public class SwitchViewGeometryTest {
+    //允许的最大误差px(只有float取整误差)
+    private static final float MAX_ERROR = 1e-3f;
+
+    //不同尺寸、宽高比的绘制区域
+    private static final int[][] SIZES = {
+            {0, 0, 56, 38},
+            {0, 0, 147, 100},
+            {12, 8, 400, 120},
+            {0, 0, 90, 300},
+            {3, 5, 1441, 980},
+    };
+
+    @Test
+    public void keyframes_matchDirectFormula() throws Exception {
+        for (int[] size : SIZES) {
+            SwitchViewGeometry geometry = new SwitchViewGeometry();
+            assertTrue(geometry.setBounds(size[0], size[1], size[2], size[3]));
+            //采样点不与关键帧对齐
+            float error = geometry.getKeyframeMaxError(997);
+            assertTrue("error " + error + "px at " + size[2] + "x" + size[3], error <= MAX_ERROR);
+        }
+    }
+
+    @Test
+    public void keyframes_matchAtRandomPercents() throws Exception {
+        SwitchViewGeometry geometry = new SwitchViewGeometry();
+        geometry.setBounds(0, 0, 168, 114);
+        Random random = new Random(7);
+        for (int i = 0; i < 1000; i++) {
+            float percent = random.nextFloat();
+            int from = SwitchViewGeometry.STATE_SWITCH_OFF + random.nextInt(4);
+            int to = SwitchViewGeometry.STATE_SWITCH_OFF + random.nextInt(4);
+            assertEquals(geometry.calcBTranslate(to, from, percent),
+                    geometry.keyframeTranslate(from, to, percent), MAX_ERROR);
+            assertEquals(geometry.calcBStretch(percent), geometry.keyframeStretch(percent), MAX_ERROR);
+        }
+    }
+
+    @Test
+    public void keyframes_endPointsMatch() throws Exception {
+        SwitchViewGeometry geometry = new SwitchViewGeometry();
+        geometry.setBounds(0, 0, 168, 114);
+        //完整关闭->打开：起点在打开端，终点在关闭端(percent为剩余进度)
+        assertEquals(geometry.translateAt(1), geometry.keyframeTranslate(
+                SwitchViewGeometry.STATE_SWITCH_OFF, SwitchViewGeometry.STATE_SWITCH_ON, 0), MAX_ERROR);
+        assertEquals(0, geometry.keyframeTranslate(
+                SwitchViewGeometry.STATE_SWITCH_OFF, SwitchViewGeometry.STATE_SWITCH_ON, 1), MAX_ERROR);
+        assertEquals(geometry.bOffset, geometry.keyframeStretch(1), MAX_ERROR);
+    }
+
+    @Test
+    public void emptyBounds_cannotDraw() throws Exception {
+        assertFalse(new SwitchViewGeometry().setBounds(10, 10, 10, 40));
+    }
+}